@@ -0,0 +1,71 @@
+package com.webflux.demo.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webflux.demo.payloads.clients.ApiResponse;
+import com.webflux.demo.payloads.clients.FakeAPI.Product;
+import com.webflux.demo.payloads.clients.MetadataFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side cost per list response: wrapping each element with ApiResponse.ok (and its
+ * success metadata timestamp) and encoding the Flux with the WebFlux Jackson encoder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ApiResponseSerializationBenchmark {
+    private static final ResolvableType ELEMENT_TYPE = ResolvableType.forClassWithGenerics(ApiResponse.class, Product.class);
+
+    @Param({"20", "100", "1000"})
+    public int size;
+
+    private List<Product> products;
+    private Jackson2JsonEncoder encoder;
+    // Success metadata needs neither the tracer nor the offloader.
+    private final MetadataFactory metadataFactory = new MetadataFactory(null, null);
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        products = List.of(objectMapper.readValue(BenchmarkFixtures.productsJson(size), Product[].class));
+        encoder = new Jackson2JsonEncoder(objectMapper);
+    }
+
+    @Benchmark
+    public long wrapAndEncode() {
+        Flux<ApiResponse<Product>> body = Flux.fromIterable(products).map(product -> ApiResponse.ok(product, metadataFactory.success()));
+        return encoder.encode(body, DefaultDataBufferFactory.sharedInstance, ELEMENT_TYPE, MediaType.APPLICATION_JSON, null)
+                .map(ApiResponseSerializationBenchmark::readableAndRelease)
+                .reduce(0L, Long::sum)
+                .block();
+    }
+
+    @Benchmark
+    public long wrapOnly() {
+        return Flux.fromIterable(products).map(product -> ApiResponse.ok(product, metadataFactory.success())).count().block();
+    }
+
+    static long readableAndRelease(DataBuffer buffer) {
+        long readable = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return readable;
+    }
+}
@@ -0,0 +1,22 @@
+package com.webflux.demo.benchmarks;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public final class BenchmarkFixtures {
+    private BenchmarkFixtures() {
+    }
+
+    public static String productsJson(int size) {
+        return IntStream.rangeClosed(1, size)
+                .mapToObj(BenchmarkFixtures::productJson)
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    public static String productJson(int id) {
+        return "{\"id\":" + id + ",\"title\":\"Fjallraven - Foldsack No. " + id + " Backpack, Fits 15 Laptops\",\"price\":"
+                + (id * 10 + 0.95) + ",\"description\":\"Your perfect pack for everyday use and walks in the forest. "
+                + "Stash your laptop (up to 15 inches) in the padded sleeve, your everyday\",\"category\":\"men's clothing\","
+                + "\"image\":\"https://fakestoreapi.com/img/81fPKd-2AYL._AC_SL1500_.jpg\",\"rating\":{\"rate\":3.9,\"count\":" + (id * 7) + "}}";
+    }
+}
@@ -0,0 +1,78 @@
+package com.webflux.demo.benchmarks;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webflux.demo.configurations.properties.FakeAPIOffloadProperty;
+import com.webflux.demo.payloads.clients.Metadata;
+import com.webflux.demo.payloads.clients.MetadataFactory;
+import com.webflux.demo.services.offload.Offloader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-response Metadata cost; run with -prof gc for bytes allocated per operation.
+ * {@code zonedTimestamp} is the per-call formatting that successBlock used to do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MetadataBenchmark {
+    private Tracing tracing;
+    private MetadataFactory metadataFactory;
+    private Offloader offloader;
+    private ObjectMapper objectMapper;
+    private Span span;
+    private Tracer.SpanInScope scope;
+
+    @Setup
+    public void setUp() {
+        tracing = Tracing.newBuilder().build();
+        offloader = new Offloader(new FakeAPIOffloadProperty(), new SimpleMeterRegistry());
+        metadataFactory = new MetadataFactory(tracing.tracer(), offloader);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        span = tracing.tracer().nextSpan().start();
+        scope = tracing.tracer().withSpanInScope(span);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scope.close();
+        span.finish();
+        tracing.close();
+        offloader.dispose();
+    }
+
+    @Benchmark
+    public String zonedTimestamp() {
+        return ZonedDateTime.now().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    }
+
+    @Benchmark
+    public Metadata success() {
+        return metadataFactory.success();
+    }
+
+    @Benchmark
+    public Metadata error() {
+        return metadataFactory.error(null);
+    }
+
+    @Benchmark
+    public byte[] errorSerialized() throws Exception {
+        return objectMapper.writeValueAsBytes(metadataFactory.error(null));
+    }
+}
@@ -0,0 +1,105 @@
+package com.webflux.demo.benchmarks;
+
+import brave.Tracing;
+import brave.context.slf4j.MDCScopeDecorator;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import com.webflux.demo.utils.contexts.TraceContexts;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.micrometer.tracing.brave.bridge.BraveBaggageManager;
+import io.micrometer.tracing.brave.bridge.BraveCurrentTraceContext;
+import io.micrometer.tracing.brave.bridge.BraveTracer;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.MDC;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-exchange cost of getting the trace id to the fakeAPIWebClient response logging.
+ * {@code manualMdc} is the former addTraceIdToContext filter plus MDC.put/remove around
+ * logResponse; {@code contextPropagation} is the current path, which touches thread locals only
+ * when a log line is written ({@code contextPropagationLogged}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TracePropagationBenchmark {
+    private static final String RESPONSE = "response";
+
+    private Tracing tracing;
+    private Observation observation;
+    private Context context;
+
+    @Setup
+    public void setUp() {
+        tracing = Tracing.newBuilder()
+                .currentTraceContext(ThreadLocalCurrentTraceContext.newBuilder()
+                        .addScopeDecorator(MDCScopeDecorator.get())
+                        .build())
+                .build();
+        BraveTracer tracer = new BraveTracer(tracing.tracer(), new BraveCurrentTraceContext(tracing.currentTraceContext()), new BraveBaggageManager());
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new DefaultTracingObservationHandler(tracer));
+        observation = Observation.start("fake.api.client", registry);
+        // As WebClient does for each exchange.
+        context = Context.of(ObservationThreadLocalAccessor.KEY, observation);
+        // As the server request scope leaves it on the calling thread.
+        MDC.put("traceId", tracing.tracer().nextSpan().context().traceIdString());
+    }
+
+    @TearDown
+    public void tearDown() {
+        MDC.clear();
+        observation.stop();
+        tracing.close();
+    }
+
+    @Benchmark
+    public String manualMdc() {
+        String assembled = MDC.get("traceId");
+        return Mono.just(RESPONSE)
+                .flatMap(response -> Mono.deferContextual(ctx -> {
+                    String traceId = ctx.getOrEmpty("traceId").map(Object::toString).orElse("N/A");
+                    MDC.put("traceId", traceId);
+                    try {
+                        return Mono.just(response);
+                    } finally {
+                        MDC.remove("traceId");
+                    }
+                }))
+                .contextWrite(ctx -> assembled == null ? ctx : ctx.put("traceId", assembled))
+                .contextWrite(context)
+                .block();
+    }
+
+    @Benchmark
+    public String contextPropagation() {
+        return Mono.just(RESPONSE)
+                .flatMap(response -> Mono.deferContextual(ctx -> Mono.just(response)))
+                .contextWrite(context)
+                .block();
+    }
+
+    @Benchmark
+    public String contextPropagationLogged(Blackhole blackhole) {
+        return Mono.just(RESPONSE)
+                .flatMap(response -> Mono.deferContextual(ctx -> {
+                    TraceContexts.run(ctx, () -> blackhole.consume(MDC.get("traceId")));
+                    return Mono.just(response);
+                }))
+                .contextWrite(context)
+                .block();
+    }
+}
@@ -0,0 +1,73 @@
+package com.webflux.demo.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.webflux.demo.payloads.clients.ApiResponse;
+import com.webflux.demo.payloads.clients.FakeAPI.Product;
+import com.webflux.demo.payloads.clients.MetadataFactory;
+import com.webflux.demo.payloads.clients.Paging;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of a collection envelope of products per wire format. The encoded size of
+ * each payload is printed once per trial ("[wire-format] ...").
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class WireFormatBenchmark {
+    private static final TypeReference<ApiResponse<List<Product>>> ENVELOPE_TYPE = new TypeReference<>() {
+    };
+
+    @Param({"20", "100", "1000"})
+    public int size;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<Product>> envelope;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+        List<Product> products = List.of(json.readValue(BenchmarkFixtures.productsJson(size), Product[].class));
+        envelope = ApiResponse.page(products, Paging.builder().count(size).total(size).build(),
+                new MetadataFactory(null, null).success());
+        JsonFactory factory = switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> null;
+        };
+        objectMapper = factory == null ? json
+                : Jackson2ObjectMapperBuilder.json().factory(factory).modulesToInstall(new BlackbirdModule()).build();
+        encoded = objectMapper.writeValueAsBytes(envelope);
+        System.out.printf("%n[wire-format] %s size=%d: %d bytes%n", format, size, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return objectMapper.writeValueAsBytes(envelope);
+    }
+
+    @Benchmark
+    public ApiResponse<List<Product>> decode() throws Exception {
+        return objectMapper.readValue(encoded, ENVELOPE_TYPE);
+    }
+}
@@ -0,0 +1,170 @@
+package com.webflux.demo.configurations;
+
+import brave.Tracing;
+import brave.context.slf4j.MDCScopeDecorator;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import com.webflux.demo.benchmarks.BenchmarkFixtures;
+import com.webflux.demo.configurations.properties.FakeAPIHttpClientProperty;
+import com.webflux.demo.configurations.properties.FakeAPIOffloadProperty;
+import com.webflux.demo.payloads.clients.FakeAPI.Product;
+import com.webflux.demo.services.offload.Offloader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.micrometer.tracing.brave.bridge.BraveBaggageManager;
+import io.micrometer.tracing.brave.bridge.BraveCurrentTraceContext;
+import io.micrometer.tracing.brave.bridge.BravePropagator;
+import io.micrometer.tracing.brave.bridge.BraveTracer;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.handler.PropagatingSenderTracingObservationHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.DefaultClientRequestObservationConvention;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the fakeAPIWebClient filter chain (request context, request/response logging) and its
+ * client observation, traced through Brave as in the application, on top of decoding an in-memory
+ * upstream response. {@code mdcFilterChain} is the former trace path instead of the observation: the
+ * addTraceIdToContext filter plus MDC.put/remove around response handling. {@code baseline} has no
+ * filters and no observation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ClientFilterChainBenchmark {
+
+    @Param({"1", "20", "1000"})
+    public int size;
+
+    @Param({"true", "false"})
+    public boolean bodyLogging;
+
+    private WebClient filtered;
+    private WebClient mdcFiltered;
+    private WebClient unfiltered;
+    private Offloader offloader;
+    private Tracing tracing;
+    private Observation serverObservation;
+    private Context serverContext;
+    private String traceId;
+
+    @Setup
+    public void setUp() {
+        FakeAPIHttpClientProperty property = new FakeAPIHttpClientProperty();
+        property.setUrl("http://stub");
+        property.getLogging().setBody(bodyLogging);
+        offloader = new Offloader(new FakeAPIOffloadProperty(), new SimpleMeterRegistry());
+
+        tracing = Tracing.newBuilder()
+                .currentTraceContext(ThreadLocalCurrentTraceContext.newBuilder()
+                        .addScopeDecorator(MDCScopeDecorator.get())
+                        .build())
+                .build();
+        BraveTracer tracer = new BraveTracer(tracing.tracer(), new BraveCurrentTraceContext(tracing.currentTraceContext()), new BraveBaggageManager());
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        // The handlers Spring Boot registers: client exchanges inject trace headers, everything else gets a span.
+        observationRegistry.observationConfig().observationHandler(new ObservationHandler.FirstMatchingCompositeObservationHandler(
+                new PropagatingSenderTracingObservationHandler<>(tracer, new BravePropagator(tracing)),
+                new DefaultTracingObservationHandler(tracer)));
+        ClientAPIConfiguration configuration = new ClientAPIConfiguration(property, null, null, null, offloader, observationRegistry);
+        // The server request each upstream call belongs to, as the WebFlux server observation leaves it.
+        serverObservation = Observation.start("http.server.requests", observationRegistry);
+        serverContext = Context.of(ObservationThreadLocalAccessor.KEY, serverObservation);
+        traceId = tracing.tracer().nextSpan().context().traceIdString();
+
+        String body = size == 1 ? BenchmarkFixtures.productJson(1) : BenchmarkFixtures.productsJson(size);
+        ExchangeFunction upstream = request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+
+        filtered = WebClient.builder()
+                .baseUrl(property.getUrl())
+                .exchangeFunction(upstream)
+                .observationRegistry(observationRegistry)
+                .observationConvention(new DefaultClientRequestObservationConvention(ClientAPIConfiguration.FAKE_API_OBSERVATION))
+                .filters(list -> list.addAll(configuration.fakeAPIExchangeFilters()))
+                .build();
+        List<ExchangeFilterFunction> mdcFilters = new ArrayList<>(configuration.fakeAPIExchangeFilters());
+        mdcFilters.add(mdcFilters.size() - 1, addTraceIdToContext());
+        mdcFilters.add(mdcResponseScope());
+        mdcFiltered = WebClient.builder()
+                .baseUrl(property.getUrl())
+                .exchangeFunction(upstream)
+                .filters(list -> list.addAll(mdcFilters))
+                .build();
+        unfiltered = WebClient.builder()
+                .baseUrl(property.getUrl())
+                .exchangeFunction(upstream)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        MDC.clear();
+        serverObservation.stop();
+        tracing.close();
+        offloader.dispose();
+    }
+
+    @Benchmark
+    public List<Product> filterChain() {
+        return filtered.get().uri("/products").retrieve().bodyToFlux(Product.class).collectList()
+                .contextWrite(serverContext)
+                .block();
+    }
+
+    @Benchmark
+    public List<Product> mdcFilterChain() {
+        // As the server request scope left it on the calling thread; the response handling removes it again.
+        MDC.put("traceId", traceId);
+        return mdcFiltered.get().uri("/products").retrieve().bodyToFlux(Product.class).collectList().block();
+    }
+
+    @Benchmark
+    public List<Product> baseline() {
+        return unfiltered.get().uri("/products").retrieve().bodyToFlux(Product.class).collectList().block();
+    }
+
+    // The removed trace filters, kept here as the comparison point.
+    private static ExchangeFilterFunction addTraceIdToContext() {
+        return (request, next) -> {
+            String traceId = MDC.get("traceId");
+            return next.exchange(request).contextWrite(ctx -> traceId == null ? ctx : ctx.put("traceId", traceId));
+        };
+    }
+
+    private static ExchangeFilterFunction mdcResponseScope() {
+        return ExchangeFilterFunction.ofResponseProcessor(response -> Mono.deferContextual(ctx -> {
+            MDC.put("traceId", ctx.getOrEmpty("traceId").map(Object::toString).orElse("N/A"));
+            try {
+                return Mono.just(response);
+            } finally {
+                MDC.remove("traceId");
+            }
+        }));
+    }
+}
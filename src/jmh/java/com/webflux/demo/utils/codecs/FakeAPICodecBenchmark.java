@@ -0,0 +1,104 @@
+package com.webflux.demo.utils.codecs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.webflux.demo.benchmarks.BenchmarkFixtures;
+import com.webflux.demo.payloads.clients.FakeAPI.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upstream codec cost for product arrays: the default reflection-based Jackson codecs versus
+ * Blackbird ({@code tuned}). The payload is split into 8 KB chunks, as it arrives from the connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FakeAPICodecBenchmark {
+    private static final ResolvableType PRODUCT_TYPE = ResolvableType.forClass(Product.class);
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({"20", "100", "1000"})
+    public int size;
+
+    @Param({"default", "tuned"})
+    public String codec;
+
+    private byte[] payload;
+    private List<Product> products;
+    private Jackson2JsonDecoder decoder;
+    private Jackson2JsonEncoder encoder;
+    private ObjectReader arrayReader;
+
+    @Setup
+    public void setUp() throws Exception {
+        payload = BenchmarkFixtures.productsJson(size).getBytes(StandardCharsets.UTF_8);
+        if (codec.equals("tuned")) {
+            ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+            decoder = new Jackson2JsonDecoder(objectMapper);
+            encoder = new Jackson2JsonEncoder(objectMapper);
+        } else {
+            ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+            decoder = new Jackson2JsonDecoder(objectMapper);
+            encoder = new Jackson2JsonEncoder(objectMapper);
+        }
+        arrayReader = decoder.getObjectMapper().readerFor(Product[].class);
+        decoder.setMaxInMemorySize(-1);
+        products = decoder.decode(chunks(), PRODUCT_TYPE, MediaType.APPLICATION_JSON, null)
+                .cast(Product.class)
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public long decodeProducts() {
+        return decoder.decode(chunks(), PRODUCT_TYPE, MediaType.APPLICATION_JSON, null).count().block();
+    }
+
+    // Databind alone, without the reactive tokenizer in front of it.
+    @Benchmark
+    public int bindProducts() throws Exception {
+        Product[] bound = arrayReader.readValue(payload);
+        return bound.length;
+    }
+
+    @Benchmark
+    public long encodeProducts() {
+        return Flux.fromIterable(products)
+                .concatMap(product -> encoder.encode(Flux.just(product), DefaultDataBufferFactory.sharedInstance, PRODUCT_TYPE,
+                        MediaType.APPLICATION_JSON, null))
+                .map(buffer -> {
+                    long readable = buffer.readableByteCount();
+                    DataBufferUtils.release(buffer);
+                    return readable;
+                })
+                .reduce(0L, Long::sum)
+                .block();
+    }
+
+    private Flux<DataBuffer> chunks() {
+        return Flux.range(0, (payload.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                .map(i -> DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(payload, i * CHUNK_SIZE, Math.min(CHUNK_SIZE, payload.length - i * CHUNK_SIZE))));
+    }
+}
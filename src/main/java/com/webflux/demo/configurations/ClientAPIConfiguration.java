@@ -1,27 +1,47 @@
 package com.webflux.demo.configurations;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webflux.demo.configurations.properties.FakeAPIHttpClientProperty;
 import com.webflux.demo.exceptions.InternalHttpClientException;
+import com.webflux.demo.services.metrics.FakeAPIClientMetricsFilter;
+import com.webflux.demo.services.offload.Offloader;
+import com.webflux.demo.services.resilience.FakeAPIResilienceFilter;
+import com.webflux.demo.utils.buffers.BodyExcerpt;
+import com.webflux.demo.utils.contexts.TraceContexts;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.observation.ObservationRegistry;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.slf4j.MDC;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.DefaultClientRequestObservationConvention;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+import reactor.util.context.ContextView;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Configuration
@@ -30,7 +50,13 @@ import java.util.stream.Collectors;
 public class ClientAPIConfiguration {
 
     private static final String REQUEST_CONTEXT_KEY = "request";
+    static final String FAKE_API_OBSERVATION = "fake.api.client.observation";
     private final FakeAPIHttpClientProperty fakeAPIHttpClientProperty;
+    private final FakeAPIResilienceFilter fakeAPIResilienceFilter;
+    private final ObjectMapper objectMapper;
+    private final FakeAPIClientMetricsFilter fakeAPIClientMetricsFilter;
+    private final Offloader offloader;
+    private final ObservationRegistry observationRegistry;
 
     @Bean
     public HttpClient httpClient() {
@@ -42,6 +68,54 @@ public class ClientAPIConfiguration {
                 );
     }
 
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider fakeAPIConnectionProvider() {
+        FakeAPIHttpClientProperty.Pool pool = fakeAPIHttpClientProperty.getPool();
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(pool.getName())
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(pool.isMetrics());
+        if (pool.getLeasingStrategy() == FakeAPIHttpClientProperty.LeasingStrategy.LIFO) {
+            builder.lifo();
+        } else {
+            builder.fifo();
+        }
+        return builder.build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources fakeAPILoopResources() {
+        FakeAPIHttpClientProperty.EventLoop eventLoop = fakeAPIHttpClientProperty.getEventLoop();
+        int workerThreads = eventLoop.getWorkerThreads() > 0 ? eventLoop.getWorkerThreads() : LoopResources.DEFAULT_IO_WORKER_COUNT;
+        return LoopResources.create(eventLoop.getPrefix(), workerThreads, true);
+    }
+
+    @Bean
+    public HttpClient fakeAPIHttpClient() {
+        HttpClient client = HttpClient.create(fakeAPIConnectionProvider())
+                .runOn(fakeAPILoopResources(), fakeAPIHttpClientProperty.getEventLoop().isPreferNative())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) fakeAPIHttpClientProperty.getConnectTimeout().toMillis())
+                .doOnConnected(conn -> conn
+                        .addHandlerLast(new ReadTimeoutHandler(fakeAPIHttpClientProperty.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(fakeAPIHttpClientProperty.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                );
+        return switch (fakeAPIHttpClientProperty.getProtocol()) {
+            case H2 -> client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+            case H2C -> client.protocol(HttpProtocol.H2C);
+            case HTTP11 -> client.protocol(HttpProtocol.HTTP11);
+        };
+    }
+
+    // Static so registering the filter does not instantiate this configuration early.
+    @Bean
+    public static MeterFilter fakeAPIObservationMeterFilter() {
+        return MeterFilter.denyNameStartsWith(FAKE_API_OBSERVATION);
+    }
+
     @Bean
     @Primary
     public WebClient defaultWebClient() {
@@ -54,105 +128,151 @@ public class ClientAPIConfiguration {
     public WebClient fakeAPIWebClient() {
         return WebClient.builder()
                 .baseUrl(fakeAPIHttpClientProperty.getUrl())
-                .clientConnector(new ReactorClientHttpConnector(httpClient()))
+                .clientConnector(new ReactorClientHttpConnector(fakeAPIHttpClient()))
                 .defaultHeader("User-Agent", "MyApp/1.0")
-                .filter(enrichContextWithRequest())
-                .filter(logRequest())
-                .filter(addTraceIdToContext())
-                .filter(logResponse())
+                // One client observation per exchange: it carries the trace (and trace headers upstream)
+                // through the Reactor context, where the log calls pick it up. Its timer is dropped by
+                // fakeAPIObservationMeterFilter; FakeAPIClientMetricsFilter already times every attempt.
+                .observationRegistry(observationRegistry)
+                .observationConvention(new DefaultClientRequestObservationConvention(FAKE_API_OBSERVATION))
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().maxInMemorySize((int) fakeAPIHttpClientProperty.getCodec().getMaxInMemorySize().toBytes());
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                })
+                .filter(fakeAPIResilienceFilter)
+                .filters(filters -> filters.addAll(fakeAPIExchangeFilters()))
+                // Innermost, so each retry/hedge attempt is measured against the raw upstream response.
+                .filter(fakeAPIClientMetricsFilter)
                 .build();
     }
 
+    List<ExchangeFilterFunction> fakeAPIExchangeFilters() {
+        return List.of(
+                enrichContextWithRequest(),
+                logRequest(),
+                logResponse()
+        );
+    }
+
     private ExchangeFilterFunction enrichContextWithRequest() {
         return (request, next) -> next.exchange(request)
                 .contextWrite(ctx -> ctx.put(REQUEST_CONTEXT_KEY, request));
     }
 
-    private ExchangeFilterFunction addTraceIdToContext() {
-        return (request, next) -> {
-            String traceId = MDC.get("traceId");
-            return next.exchange(request).contextWrite(ctx -> ctx.put("traceId", traceId));
-        };
-    }
-
     private ExchangeFilterFunction logRequest() {
-        return ExchangeFilterFunction.ofRequestProcessor(clientRequest ->
-                Mono.deferContextual(ctx -> {
-                    StringBuilder sb = new StringBuilder("Request:\n");
-                    sb.append(clientRequest.method()).append(" ").append(clientRequest.url()).append("\n");
-
-                    clientRequest.headers().forEach((key, values) -> {
-                        sb.append(key).append(": ").append(String.join(",", values)).append("\n");
-                    });
-
-                    log.info(sb.toString());
-                    return Mono.just(clientRequest);
-                })
-        );
+        return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
+            if (log.isDebugEnabled()) {
+                StringBuilder sb = new StringBuilder("Request:\n");
+                sb.append(clientRequest.method()).append(" ").append(clientRequest.url()).append("\n");
+                clientRequest.headers().forEach((key, values) -> {
+                    sb.append(key).append(": ").append(String.join(",", values)).append("\n");
+                });
+                log.debug(sb.toString());
+            }
+            return Mono.just(clientRequest);
+        });
     }
 
     private ExchangeFilterFunction logResponse() {
+        FakeAPIHttpClientProperty.Logging logging = fakeAPIHttpClientProperty.getLogging();
+        int maxBodySize = (int) logging.getMaxBodySize().toBytes();
         return ExchangeFilterFunction.ofResponseProcessor(originalResponse ->
+                // The WebClient observation in the context carries the trace; it is put on the thread
+                // (and into the MDC) only around the log calls below.
                 Mono.deferContextual(ctxView -> {
-                    String traceId = ctxView.getOrEmpty("traceId")
-                            .map(Object::toString)
-                            .orElse("N/A");
-
-                    MDC.put("traceId", traceId);
-
-                    return originalResponse.bodyToMono(String.class)
-                            .defaultIfEmpty("")
-                            .flatMap(body -> {
-                                try {
-                                    log.info("Response Status: {}", originalResponse.statusCode());
-                                    log.info("Response Headers: {}",
-                                            originalResponse.headers().asHttpHeaders()
-                                                    .entrySet()
-                                                    .stream()
-                                                    .map(entry -> entry.getKey() + ": " + String.join(",", entry.getValue()))
-                                                    .collect(Collectors.joining(" | "))
-                                    );
-
-                                    String contentType = originalResponse.headers()
-                                            .contentType()
-                                            .map(MediaType::toString)
-                                            .orElse("");
-
-                                    boolean isTextual = contentType.startsWith("text/") || contentType.contains("json") || contentType.contains("xml");
-
-                                    if (!isTextual) {
-                                        log.warn("Non-text response (content-type: {}). Skipping body logging.", contentType);
-                                        return Mono.just(originalResponse);
-                                    }
+                    if (log.isDebugEnabled()) {
+                        TraceContexts.run(ctxView, () -> {
+                            log.debug("Response Status: {}", originalResponse.statusCode());
+                            log.debug("Response Headers: {}",
+                                    originalResponse.headers().asHttpHeaders()
+                                            .entrySet()
+                                            .stream()
+                                            .map(entry -> entry.getKey() + ": " + String.join(",", entry.getValue()))
+                                            .collect(Collectors.joining(" | "))
+                            );
+                        });
+                    }
 
-                                    if (originalResponse.statusCode().isError() || body.isEmpty()) {
-                                        log.error("Response Error Body: {}", body);
-                                        String url = "UNKNOWN";
-                                        String requestInfo = "EMPTY REQUEST!";
-                                        ClientRequest req = ctxView.getOrDefault(REQUEST_CONTEXT_KEY, null);
-                                        if (req != null) {
-                                            url = String.valueOf(req.url());
-                                            requestInfo = formatRequest(req);
-                                        }
-                                        return Mono.error(new InternalHttpClientException(body, originalResponse.statusCode().value(), url, requestInfo, body));
-                                    } else {
-                                        log.info("Response Body: {}", body);
+                    String contentType = originalResponse.headers()
+                            .contentType()
+                            .map(MediaType::toString)
+                            .orElse("");
+
+                    boolean isTextual = contentType.startsWith("text/") || contentType.contains("json") || contentType.contains("xml");
+
+                    if (originalResponse.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return Mono.just(originalResponse);
+                    }
+
+                    if (!isTextual) {
+                        if (log.isDebugEnabled()) {
+                            TraceContexts.run(ctxView, () -> log.debug("Non-text response (content-type: {}). Skipping body logging.", contentType));
+                        }
+                        return Mono.just(originalResponse);
+                    }
+
+                    if (originalResponse.statusCode().isError()) {
+                        // reduce() hands each buffer over exactly once; then() would also pass it to the discard hook.
+                        return originalResponse.bodyToFlux(DataBuffer.class)
+                                .reduce(new BodyExcerpt(maxBodySize), (excerpt, buffer) -> {
+                                    excerpt.append(buffer);
+                                    DataBufferUtils.release(buffer);
+                                    return excerpt;
+                                })
+                                .flatMap(excerpt -> {
+                                    if (sampled(logging.getErrorSampleRate()) && log.isErrorEnabled()) {
+                                        // Decoding the excerpt is left to the offload thread; errors come in storms.
+                                        offloader.execute(ctxView, () -> log.error("Response Error Body: {}", excerpt));
                                     }
+                                    return Mono.error(toException(originalResponse, ctxView, excerpt));
+                                });
+                    }
 
-                                    ClientResponse rebuilt = ClientResponse.create(originalResponse.statusCode())
-                                            .headers(headers -> headers.addAll(originalResponse.headers().asHttpHeaders()))
-                                            .body(body)
-                                            .build();
+                    if (!logging.isBody() || !sampled(logging.getSuccessSampleRate()) || !log.isInfoEnabled()) {
+                        return Mono.just(originalResponse.mutate()
+                                .body(body -> body.switchIfEmpty(emptyBody(originalResponse, ctxView, null)))
+                                .build());
+                    }
 
-                                    return Mono.just(rebuilt);
-                                } finally {
-                                    MDC.remove("traceId"); // Clean up
-                                }
-                            });
+                    BodyExcerpt excerpt = new BodyExcerpt(maxBodySize);
+                    return Mono.just(originalResponse.mutate()
+                            .body(body -> body
+                                    .doOnNext(excerpt::append)
+                                    .doOnComplete(() -> {
+                                        if (excerpt.getTotalBytes() > 0) {
+                                            offloader.execute(ctxView, () -> log.info("Response Body: {}", excerpt));
+                                        }
+                                    })
+                                    .switchIfEmpty(emptyBody(originalResponse, ctxView, excerpt)))
+                            .build());
                 })
         );
     }
 
+    private static boolean sampled(double rate) {
+        return rate >= 1.0 || rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private Flux<DataBuffer> emptyBody(ClientResponse response, ContextView ctxView, BodyExcerpt excerpt) {
+        return Flux.error(() -> {
+            offloader.execute(ctxView, () -> log.error("Response Error Body: "));
+            return toException(response, ctxView, excerpt);
+        });
+    }
+
+    private static InternalHttpClientException toException(ClientResponse response, ContextView ctxView, BodyExcerpt excerpt) {
+        String body = excerpt == null ? "" : excerpt.toString();
+        String url = "UNKNOWN";
+        String requestInfo = "EMPTY REQUEST!";
+        ClientRequest req = ctxView.getOrDefault(REQUEST_CONTEXT_KEY, null);
+        if (req != null) {
+            url = String.valueOf(req.url());
+            requestInfo = formatRequest(req);
+        }
+        return new InternalHttpClientException(body, response.statusCode().value(), url, requestInfo, body);
+    }
+
     private static String formatRequest(ClientRequest request) {
         StringBuilder sb = new StringBuilder();
         sb.append(request.method()).append(" ").append(request.url()).append("\nHeaders: ");
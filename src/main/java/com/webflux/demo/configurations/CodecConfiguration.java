@@ -0,0 +1,47 @@
+package com.webflux.demo.configurations;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.webflux.demo.utils.codecs.Jackson2CborValueEncoder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@Configuration
+public class CodecConfiguration {
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType SMILE = MediaType.valueOf(SMILE_VALUE);
+
+    // Picked up by Spring Boot's Jackson auto-configuration, so both server and client codecs use it.
+    @Bean
+    @ConditionalOnProperty(prefix = "client.fake.api.codec", name = "blackbird", havingValue = "true", matchIfMissing = true)
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // Binary alternatives negotiated through Accept / Content-Type. Custom codecs are consulted before the
+    // defaults, so JSON is registered there too, ahead of CBOR, to stay the answer for "Accept: */*".
+    @Bean
+    public CodecCustomizer binaryCodecCustomizer(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        ObjectMapper smileMapper = objectMapperBuilder.factory(new SmileFactory()).build();
+        ObjectMapper cborMapper = objectMapperBuilder.factory(new CBORFactory()).build();
+        // Mime types must be passed explicitly: without them these constructors fall back to the JSON ones.
+        return configurer -> {
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, SMILE));
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, SMILE));
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+            configurer.customCodecs().register(new Jackson2CborValueEncoder(cborMapper, MediaType.APPLICATION_CBOR));
+        };
+    }
+}
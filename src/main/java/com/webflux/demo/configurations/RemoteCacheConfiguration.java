@@ -0,0 +1,35 @@
+package com.webflux.demo.configurations;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.webflux.demo.configurations.properties.FakeAPICacheProperty;
+import com.webflux.demo.services.caches.InMemoryRemoteCacheTier;
+import com.webflux.demo.services.caches.RedisRemoteCacheTier;
+import com.webflux.demo.services.caches.RemoteCache;
+import com.webflux.demo.services.caches.RemoteCacheTier;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@Configuration
+@ConditionalOnProperty(prefix = "client.fake.api.cache.remote", name = "enabled", havingValue = "true")
+public class RemoteCacheConfiguration {
+
+    // Switches on the bound enum so every spelling Spring accepts for it (redis, REDIS, in-memory,
+    // IN_MEMORY) selects a tier; the inferred destroy method closes the Redis client.
+    @Bean
+    public RemoteCacheTier remoteCacheTier(FakeAPICacheProperty cacheProperty) {
+        FakeAPICacheProperty.Remote remote = cacheProperty.getRemote();
+        return switch (remote.getType()) {
+            case REDIS -> new RedisRemoteCacheTier(remote);
+            case IN_MEMORY -> new InMemoryRemoteCacheTier();
+        };
+    }
+
+    @Bean
+    public RemoteCache remoteCache(RemoteCacheTier tier, FakeAPICacheProperty cacheProperty,
+                                   Jackson2ObjectMapperBuilder objectMapperBuilder, MeterRegistry meterRegistry) {
+        return new RemoteCache(tier, objectMapperBuilder.factory(new SmileFactory()).build(), cacheProperty.getRemote(), meterRegistry);
+    }
+}
@@ -0,0 +1,32 @@
+package com.webflux.demo.configurations.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component("fakeAPIAdmissionProperty")
+@ConfigurationProperties(prefix = "client.fake.api.admission")
+public class FakeAPIAdmissionProperty {
+    private boolean enabled = true;
+    // Time a request has from arrival to response; it is shed (503) as soon as waiting any longer
+    // would leave less than the route's typical service time.
+    private Duration deadline = Duration.ofSeconds(5);
+    private Limit defaults = new Limit();
+    // Per route group, the first path segment under /api/fake-api/ (products, carts, users, auth).
+    private Map<String, Limit> routes = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int maxConcurrent = 128;
+        // Requests waiting for a slot; reads are served first and may displace queued writes.
+        private int queueCapacity = 256;
+    }
+}
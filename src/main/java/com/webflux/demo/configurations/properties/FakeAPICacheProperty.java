@@ -0,0 +1,66 @@
+package com.webflux.demo.configurations.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component("fakeAPICacheProperty")
+@ConfigurationProperties(prefix = "client.fake.api.cache")
+public class FakeAPICacheProperty {
+    private boolean enabled = true;
+    // Serve expired entries immediately (refreshing once in the background) and keep serving them
+    // while upstream fails, until they are older than ttl + maxStale.
+    private boolean staleWhileRevalidate = false;
+    private Duration maxStale = Duration.ofMinutes(10);
+    private Spec products = new Spec(Duration.ofMinutes(5), 1);
+    private Spec product = new Spec(Duration.ofMinutes(5), 1000);
+    private Spec categories = new Spec(Duration.ofMinutes(30), 1);
+    private Spec productsByCategory = new Spec(Duration.ofMinutes(5), 100);
+    private UpstreamValidators upstreamValidators = new UpstreamValidators();
+    private Remote remote = new Remote();
+
+    public enum RemoteType {
+        REDIS, IN_MEMORY
+    }
+
+    // Upstream ETags of the catalog lists, replayed as If-None-Match when a cache entry is reloaded.
+    @Getter
+    @Setter
+    public static class UpstreamValidators {
+        private boolean enabled = true;
+        private long maximumSize = 200;
+    }
+
+    // Shared second level behind the per-node caches, so replicas load each key from upstream once.
+    @Getter
+    @Setter
+    public static class Remote {
+        private boolean enabled = false;
+        private RemoteType type = RemoteType.REDIS;
+        private String url = "redis://localhost:6379";
+        // Remote reads and writes slower than this count as misses/failures instead of delaying the request.
+        private Duration timeout = Duration.ofMillis(100);
+        private String keyPrefix = "demo:cache:";
+        private String channel = "demo:cache:invalidations";
+    }
+
+    @Getter
+    @Setter
+    public static class Spec {
+        private Duration ttl;
+        private long maximumSize;
+
+        public Spec() {
+        }
+
+        public Spec(Duration ttl, long maximumSize) {
+            this.ttl = ttl;
+            this.maximumSize = maximumSize;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.webflux.demo.configurations.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component("fakeAPICartWritesProperty")
+@ConfigurationProperties(prefix = "client.fake.api.cart-writes")
+public class FakeAPICartWritesProperty {
+    // When false, addCart/updateCart go straight to the upstream.
+    private boolean enabled = false;
+    // A batch is dispatched once it holds maxBatchSize writes or its first write has waited this long.
+    private Duration maxBatchLatency = Duration.ofMillis(20);
+    private int maxBatchSize = 64;
+    // Upstream calls in flight for one batch.
+    private int concurrency = 8;
+    // Writes beyond this many queued are rejected with 503 instead of buffered.
+    private int queueCapacity = 1024;
+}
@@ -0,0 +1,19 @@
+package com.webflux.demo.configurations.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component("fakeAPICatalogIndexProperty")
+@ConfigurationProperties(prefix = "client.fake.api.catalog-index")
+public class FakeAPICatalogIndexProperty {
+    // The index is rebuilt from FakeStoreClient.getAllProducts at this interval (and on first use).
+    private Duration refreshInterval = Duration.ofMinutes(5);
+    private int defaultPageSize = 20;
+    private int maxPageSize = 100;
+}
@@ -0,0 +1,16 @@
+package com.webflux.demo.configurations.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component("fakeAPIFanOutProperty")
+@ConfigurationProperties(prefix = "client.fake.api.fan-out")
+public class FakeAPIFanOutProperty {
+    // Upper bound of concurrent upstream calls issued for a single aggregated request.
+    private int concurrency = 8;
+    private int maxBatchSize = 100;
+}
@@ -4,6 +4,9 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @Getter
 @Setter
@@ -11,4 +14,67 @@ import org.springframework.stereotype.Component;
 @ConfigurationProperties(prefix = "client.fake.api")
 public class FakeAPIHttpClientProperty {
     private String url;
+    private Protocol protocol = Protocol.HTTP11;
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    private Duration writeTimeout = Duration.ofSeconds(10);
+    private Pool pool = new Pool();
+    private EventLoop eventLoop = new EventLoop();
+    private Logging logging = new Logging();
+    private Codec codec = new Codec();
+
+    public enum Protocol {
+        HTTP11, H2, H2C
+    }
+
+    public enum LeasingStrategy {
+        FIFO, LIFO
+    }
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private String name = "fake-api";
+        private int maxConnections = 500;
+        private int pendingAcquireMaxCount = 1000;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        // Zero disables background eviction; idle/expired connections are then only dropped on acquire.
+        private Duration evictInBackground = Duration.ofSeconds(30);
+        private LeasingStrategy leasingStrategy = LeasingStrategy.FIFO;
+        private boolean metrics = true;
+    }
+
+    @Getter
+    @Setter
+    public static class EventLoop {
+        private String prefix = "fake-api";
+        // Zero keeps reactor-netty's default (one worker per core, at least four).
+        private int workerThreads = 0;
+        // Uses epoll/kqueue when the native transport is on the classpath, NIO otherwise.
+        private boolean preferNative = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Logging {
+        // When false, successful response bodies pass through untouched (no copy, no decode).
+        private boolean body = true;
+        // Fraction of successful bodies logged at INFO; the rest pass through without being copied.
+        private double successSampleRate = 0.01;
+        // Fraction of error bodies logged at ERROR; the excerpt is always kept for the raised exception.
+        private double errorSampleRate = 1.0;
+        // Only this many leading bytes of a body are kept for logging and error reports.
+        private DataSize maxBodySize = DataSize.ofKilobytes(4);
+    }
+
+    @Getter
+    @Setter
+    public static class Codec {
+        // Upper bound for a single aggregated value (a Mono body or one element of a Flux).
+        private DataSize maxInMemorySize = DataSize.ofMegabytes(2);
+        // Registers the Blackbird module (generated accessors instead of reflection) with the shared ObjectMapper.
+        private boolean blackbird = true;
+    }
 }
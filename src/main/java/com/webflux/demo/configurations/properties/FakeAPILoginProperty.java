@@ -0,0 +1,45 @@
+package com.webflux.demo.configurations.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component("fakeAPILoginProperty")
+@ConfigurationProperties(prefix = "client.fake.api.login")
+public class FakeAPILoginProperty {
+    private Cache cache = new Cache();
+    // Upstream login attempts per username, and across all usernames; cached logins are not counted.
+    private RateLimit perUser = new RateLimit(5, 0.5);
+    private RateLimit global = new RateLimit(200, 100);
+
+    // Tokens of successful logins, keyed by a salted hash of username and password.
+    @Getter
+    @Setter
+    public static class Cache {
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofSeconds(60);
+        private long maximumSize = 10_000;
+    }
+
+    // Token bucket: up to burst attempts at once, refilled at permitsPerSecond.
+    @Getter
+    @Setter
+    public static class RateLimit {
+        private boolean enabled = true;
+        private int burst;
+        private double permitsPerSecond;
+
+        public RateLimit() {
+        }
+
+        public RateLimit(int burst, double permitsPerSecond) {
+            this.burst = burst;
+            this.permitsPerSecond = permitsPerSecond;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.webflux.demo.configurations.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+@Getter
+@Setter
+@Component("fakeAPIMetricsProperty")
+@ConfigurationProperties(prefix = "client.fake.api.metrics")
+public class FakeAPIMetricsProperty {
+    private boolean enabled = true;
+    // Publishes histogram buckets so percentiles can be aggregated across instances.
+    private boolean percentileHistogram = true;
+    private List<Duration> latencySlo = List.of(
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250),
+            Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(5));
+    private List<DataSize> sizeSlo = List.of(
+            DataSize.ofKilobytes(1), DataSize.ofKilobytes(16), DataSize.ofKilobytes(128), DataSize.ofMegabytes(1));
+}
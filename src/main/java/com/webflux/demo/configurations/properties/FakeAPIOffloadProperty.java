@@ -0,0 +1,24 @@
+package com.webflux.demo.configurations.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component("fakeAPIOffloadProperty")
+@ConfigurationProperties(prefix = "client.fake.api.offload")
+public class FakeAPIOffloadProperty {
+    // AUTO picks virtual threads on JDK 21+ and a bounded-elastic pool otherwise.
+    private OffloadType type = OffloadType.AUTO;
+    // Bounded-elastic only; 0 keeps Reactor's default (10 x CPU cores).
+    private int threadCap = 0;
+    // Fire-and-forget tasks (log statements) beyond this many pending are dropped and counted.
+    private int maxPending = 10_000;
+    private String name = "fake-api-offload";
+
+    public enum OffloadType {
+        AUTO, VIRTUAL, BOUNDED_ELASTIC
+    }
+}
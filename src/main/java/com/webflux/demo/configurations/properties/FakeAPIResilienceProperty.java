@@ -0,0 +1,64 @@
+package com.webflux.demo.configurations.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component("fakeAPIResilienceProperty")
+@ConfigurationProperties(prefix = "client.fake.api.resilience")
+public class FakeAPIResilienceProperty {
+    private Limiter limiter = new Limiter();
+    private Breaker breaker = new Breaker();
+    private RetryPolicy retry = new RetryPolicy();
+    private Hedge hedge = new Hedge();
+
+    @Getter
+    @Setter
+    public static class Limiter {
+        private boolean enabled = true;
+        private int initialLimit = 100;
+        private int minLimit = 10;
+        private int maxLimit = 500;
+        // Multiplicative decrease applied on a drop (timeout, 5xx, or latency above tolerance).
+        private double backoffRatio = 0.9;
+        // A short-term RTT above the long-term RTT * rttTolerance is treated as a queueing signal.
+        private double rttTolerance = 2.0;
+    }
+
+    @Getter
+    @Setter
+    public static class Breaker {
+        private boolean enabled = true;
+        private int slidingWindowSize = 50;
+        private int minimumCalls = 20;
+        private int failureRateThreshold = 50;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 5;
+    }
+
+    @Getter
+    @Setter
+    public static class RetryPolicy {
+        private boolean enabled = true;
+        private int maxRetries = 2;
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(1);
+        private double jitter = 0.5;
+    }
+
+    @Getter
+    @Setter
+    public static class Hedge {
+        private boolean enabled = false;
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(20);
+        private Duration maxDelay = Duration.ofSeconds(2);
+        // No hedging for an endpoint until this many latency samples were recorded.
+        private long minSamples = 100;
+    }
+}
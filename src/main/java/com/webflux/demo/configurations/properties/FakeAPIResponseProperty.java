@@ -0,0 +1,31 @@
+package com.webflux.demo.configurations.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component("fakeAPIResponseProperty")
+@ConfigurationProperties(prefix = "client.fake.api.response")
+public class FakeAPIResponseProperty {
+    // Default shape of list responses; a request can override it with ?envelope=.
+    private Envelope envelope = Envelope.ELEMENT;
+
+    public enum Envelope {
+        // One ApiResponse per element (the original format).
+        ELEMENT,
+        // A single ApiResponse whose data is the list, with paging info.
+        COLLECTION;
+
+        public static Envelope of(String value) {
+            for (Envelope envelope : values()) {
+                if (envelope.name().equalsIgnoreCase(value)) {
+                    return envelope;
+                }
+            }
+            throw new IllegalArgumentException("Unknown envelope: " + value);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.webflux.demo.configurations.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component("fakeAPISingleFlightProperty")
+@ConfigurationProperties(prefix = "client.fake.api.single-flight")
+public class FakeAPISingleFlightProperty {
+    // Concurrent identical GETs share one upstream call; only in-flight calls are shared, nothing is retained.
+    private boolean enabled = true;
+}
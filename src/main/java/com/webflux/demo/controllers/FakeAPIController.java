@@ -1,12 +1,31 @@
 package com.webflux.demo.controllers;
 
+import com.webflux.demo.configurations.CodecConfiguration;
+import com.webflux.demo.configurations.properties.FakeAPIResponseProperty;
 import com.webflux.demo.payloads.clients.ApiResponse;
+import com.webflux.demo.payloads.clients.CatalogQuery;
+import com.webflux.demo.payloads.clients.BatchItem;
 import com.webflux.demo.payloads.clients.FakeAPI.Cart;
 import com.webflux.demo.payloads.clients.FakeAPI.LoginRequest;
 import com.webflux.demo.payloads.clients.FakeAPI.Product;
+import com.webflux.demo.payloads.clients.FakeAPI.TokenResponse;
 import com.webflux.demo.payloads.clients.FakeAPI.User;
+import com.webflux.demo.payloads.clients.ListOptions;
+import com.webflux.demo.payloads.clients.MetadataFactory;
+import com.webflux.demo.payloads.clients.Paging;
+import com.webflux.demo.services.aggregations.CartEnrichmentService;
+import com.webflux.demo.services.aggregations.CartWritePipeline;
+import com.webflux.demo.services.aggregations.ProductBatchService;
+import com.webflux.demo.services.auth.LoginService;
+import com.webflux.demo.services.caches.CacheFreshness;
+import com.webflux.demo.services.caches.ContentDigests;
+import com.webflux.demo.services.catalog.CatalogIndex;
 import com.webflux.demo.services.clients.FakeStoreClient;
+import com.webflux.demo.utils.http.ETags;
 import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,136 +36,264 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/fake-api")
 @RequiredArgsConstructor
 public class FakeAPIController {
     private final FakeStoreClient fakeStoreClient;
+    private final ProductBatchService productBatchService;
+    private final CartEnrichmentService cartEnrichmentService;
+    private final CartWritePipeline cartWritePipeline;
+    private final FakeAPIResponseProperty fakeAPIResponseProperty;
+    private final CatalogIndex catalogIndex;
+    private final LoginService loginService;
+    private final MetadataFactory metadataFactory;
+    private final ContentDigests contentDigests;
 
     // === Products ===
     @GetMapping("/products")
-    public Flux<ApiResponse<Product>> getAllProducts() {
-        return fakeStoreClient.getAllProducts()
-                .map(ApiResponse::ok);
+    public Mono<?> getAllProducts(ListOptions options, ServerWebExchange exchange) {
+        return list(fakeStoreClient.getProductList(), options, exchange);
+    }
+
+    @GetMapping(value = "/products", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<ApiResponse<Product>> streamAllProducts() {
+        return stream(fakeStoreClient.streamAllProducts());
+    }
+
+    // Served from the in-memory catalog index; see CatalogQuery for the parameters.
+    @GetMapping("/products/search")
+    public Mono<ApiResponse<List<Product>>> searchProducts(CatalogQuery query) {
+        return catalogIndex.search(query)
+                .map(result -> ApiResponse.page(result.items(), Paging.builder()
+                        .offset(result.offset())
+                        .limit(result.limit())
+                        .count(result.items().size())
+                        .total(result.total())
+                        .build(), metadataFactory.success()));
     }
 
     @GetMapping("/products/{id}")
     public Mono<ApiResponse<Product>> getProductById(@PathVariable int id) {
-        return fakeStoreClient.getProductById(id)
-                .map(ApiResponse::ok);
+        return CacheFreshness.trackMono(freshness -> fakeStoreClient.getProductById(id)
+                .map(product -> ApiResponse.ok(product, metadataFactory.success(freshness.isStale()))));
+    }
+
+    @GetMapping(value = "/products", params = "ids")
+    public Mono<ApiResponse<List<BatchItem<Product>>>> getProductsByIds(@RequestParam List<Integer> ids) {
+        return productBatchService.getProductsByIds(ids)
+                .collectList()
+                .map(this::ok);
+    }
+
+    @PostMapping(value = "/products/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, CodecConfiguration.SMILE_VALUE})
+    public Mono<ApiResponse<List<BatchItem<Product>>>> getProductsByIdsBatch(@RequestBody List<Integer> ids) {
+        return productBatchService.getProductsByIds(ids)
+                .collectList()
+                .map(this::ok);
     }
 
     @GetMapping("/products/categories")
-    public Flux<ApiResponse<String>> getAllCategories() {
-        return fakeStoreClient.getAllCategories()
-                .map(ApiResponse::ok);
+    public Mono<?> getAllCategories(ListOptions options, ServerWebExchange exchange) {
+        return list(fakeStoreClient.getCategoryList(), options, exchange);
     }
 
     @GetMapping("/products/category/{category}")
-    public Flux<ApiResponse<Product>> getProductsByCategory(@PathVariable String category) {
-        return fakeStoreClient.getProductsByCategory(category)
-                .map(ApiResponse::ok);
+    public Mono<?> getProductsByCategory(@PathVariable String category, ListOptions options, ServerWebExchange exchange) {
+        return list(fakeStoreClient.getProductListByCategory(category), options, exchange);
+    }
+
+    @GetMapping(value = "/products/category/{category}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<ApiResponse<Product>> streamProductsByCategory(@PathVariable String category) {
+        return stream(fakeStoreClient.streamProductsByCategory(category));
     }
 
     @GetMapping("/products/limited")
-    public Flux<ApiResponse<Product>> getLimitedProducts(@RequestParam int limit) {
-        return fakeStoreClient.getLimitedProducts(limit)
-                .map(ApiResponse::ok);
+    public Publisher<?> getLimitedProducts(@RequestParam int limit, @RequestParam(required = false) String envelope) {
+        ListOptions options = new ListOptions();
+        options.setEnvelope(envelope);
+        return list(fakeStoreClient.getLimitedProducts(limit), options);
     }
 
-    @PostMapping(value = "/products", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/products", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, CodecConfiguration.SMILE_VALUE})
     public Mono<ApiResponse<Product>> addProduct(@RequestBody Product product) {
         return fakeStoreClient.addProduct(product)
-                .map(ApiResponse::ok);
+                .map(this::ok);
     }
 
-    @PutMapping(value = "/products/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PutMapping(value = "/products/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, CodecConfiguration.SMILE_VALUE})
     public Mono<ApiResponse<Product>> updateProduct(@PathVariable int id, @RequestBody Product product) {
         return fakeStoreClient.updateProduct(id, product)
-                .map(ApiResponse::ok);
+                .map(this::ok);
     }
 
     @DeleteMapping("/products/{id}")
     public Mono<ApiResponse<Void>> deleteProduct(@PathVariable int id) {
         return fakeStoreClient.deleteProduct(id)
-                .thenReturn(ApiResponse.ok(null));
+                .thenReturn(ok(null));
     }
 
     // === Carts ===
     @GetMapping("/carts")
-    public Flux<ApiResponse<Cart>> getAllCarts() {
-        return fakeStoreClient.getAllCarts()
-                .map(ApiResponse::ok);
+    public Publisher<?> getAllCarts(ListOptions options) {
+        return list(fakeStoreClient.getAllCarts(), options);
+    }
+
+    @GetMapping(value = "/carts", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<ApiResponse<Cart>> streamAllCarts() {
+        return stream(fakeStoreClient.getAllCarts());
     }
 
     @GetMapping("/carts/{id}")
     public Mono<ApiResponse<Cart>> getCartById(@PathVariable int id) {
         return fakeStoreClient.getCartById(id)
-                .map(ApiResponse::ok);
+                .map(this::ok);
     }
 
     @GetMapping("/carts/user/{userId}")
-    public Flux<ApiResponse<Cart>> getCartsByUserId(@PathVariable int userId) {
-        return fakeStoreClient.getCartsByUserId(userId)
-                .map(ApiResponse::ok);
+    public Publisher<?> getCartsByUserId(@PathVariable int userId, ListOptions options) {
+        return list(fakeStoreClient.getCartsByUserId(userId), options);
+    }
+
+    @GetMapping("/carts/user/{userId}/enriched")
+    public Publisher<?> getEnrichedCartsByUserId(@PathVariable int userId, ListOptions options) {
+        return list(cartEnrichmentService.getEnrichedCartsByUserId(userId), options);
     }
 
-    @PostMapping(value = "/carts", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/carts", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, CodecConfiguration.SMILE_VALUE})
     public Mono<ApiResponse<Cart>> addCart(@RequestBody Cart cart) {
-        return fakeStoreClient.addCart(cart)
-                .map(ApiResponse::ok);
+        return cartWritePipeline.addCart(cart)
+                .map(this::ok);
     }
 
-    @PutMapping(value = "/carts/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PutMapping(value = "/carts/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, CodecConfiguration.SMILE_VALUE})
     public Mono<ApiResponse<Cart>> updateCart(@PathVariable int id, @RequestBody Cart cart) {
-        return fakeStoreClient.updateCart(id, cart)
-                .map(ApiResponse::ok);
+        return cartWritePipeline.updateCart(id, cart)
+                .map(this::ok);
     }
 
     @DeleteMapping("/carts/{id}")
     public Mono<ApiResponse<Void>> deleteCart(@PathVariable int id) {
         return fakeStoreClient.deleteCart(id)
-                .thenReturn(ApiResponse.ok(null));
+                .thenReturn(ok(null));
     }
 
     // === Users ===
     @GetMapping("/users")
-    public Flux<ApiResponse<User>> getAllUsers() {
-        return fakeStoreClient.getAllUsers()
-                .map(ApiResponse::ok);
+    public Publisher<?> getAllUsers(ListOptions options) {
+        return list(fakeStoreClient.getAllUsers(), options);
+    }
+
+    @GetMapping(value = "/users", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<ApiResponse<User>> streamAllUsers() {
+        return stream(fakeStoreClient.getAllUsers());
     }
 
     @GetMapping("/users/{id}")
     public Mono<ApiResponse<User>> getUserById(@PathVariable int id) {
         return fakeStoreClient.getUserById(id)
-                .map(ApiResponse::ok);
+                .map(this::ok);
     }
 
-    @PostMapping(value = "/users", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/users", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, CodecConfiguration.SMILE_VALUE})
     public Mono<ApiResponse<User>> addUser(@RequestBody User user) {
         return fakeStoreClient.addUser(user)
-                .map(ApiResponse::ok);
+                .map(this::ok);
     }
 
-    @PutMapping(value = "/users/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PutMapping(value = "/users/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, CodecConfiguration.SMILE_VALUE})
     public Mono<ApiResponse<User>> updateUser(@PathVariable int id, @RequestBody User user) {
         return fakeStoreClient.updateUser(id, user)
-                .map(ApiResponse::ok);
+                .map(this::ok);
     }
 
     @DeleteMapping("/users/{id}")
     public Mono<ApiResponse<Void>> deleteUser(@PathVariable int id) {
         return fakeStoreClient.deleteUser(id)
-                .thenReturn(ApiResponse.ok(null));
+                .thenReturn(ok(null));
     }
 
     // === Auth (Login) ===
-    @PostMapping(value = "/auth/login", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<ApiResponse<User>> loginUser(@RequestBody LoginRequest loginRequest) {
-        return fakeStoreClient.loginUser(loginRequest.getUsername(), loginRequest.getPassword())
-                .map(ApiResponse::ok);
+    @PostMapping(value = "/auth/login", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, CodecConfiguration.SMILE_VALUE})
+    public Mono<ApiResponse<TokenResponse>> loginUser(@RequestBody LoginRequest loginRequest) {
+        return loginService.login(loginRequest)
+                .map(this::ok);
+    }
+
+    private <T> ApiResponse<T> ok(T data) {
+        return ApiResponse.ok(data, metadataFactory.success());
+    }
+
+    // One envelope per element, emitted as the element arrives; a stale cached list flags every envelope.
+    private <T> Flux<ApiResponse<T>> stream(Flux<T> items) {
+        return CacheFreshness.trackFlux(freshness -> items
+                .map(item -> ApiResponse.ok(item, metadataFactory.success(freshness.isStale()))));
+    }
+
+    // ELEMENT streams one envelope per element as it arrives; only COLLECTION, which reports the total, collects first.
+    private <T> Publisher<?> list(Flux<T> items, ListOptions options) {
+        if (envelope(options) == FakeAPIResponseProperty.Envelope.COLLECTION) {
+            return list(items.collectList(), options, null);
+        }
+        Flux<T> page = items.skip(offset(options));
+        return stream(options.getLimit() == null ? page : page.take(options.getLimit()));
+    }
+
+    // Pages an already collected list into either one envelope per element or a single paged envelope.
+    // With an exchange, the response carries an ETag and a matching If-None-Match is answered with 304;
+    // the list should then be the cached instance, whose digest is computed only once.
+    private <T> Mono<?> list(Mono<List<T>> items, ListOptions options, ServerWebExchange exchange) {
+        FakeAPIResponseProperty.Envelope envelope = envelope(options);
+        int offset = offset(options);
+        Integer limit = options.getLimit();
+        return CacheFreshness.trackMono(freshness -> items.flatMap(all -> {
+            int from = Math.min(offset, all.size());
+            int to = limit == null ? all.size() : (int) Math.min((long) from + limit, all.size());
+            List<T> page = all.subList(from, to);
+            if (exchange != null && notModified(exchange, all, envelope.name(), offset, limit)) {
+                return Mono.empty();
+            }
+            if (envelope == FakeAPIResponseProperty.Envelope.COLLECTION) {
+                return Mono.just(ApiResponse.page(page, Paging.builder()
+                        .offset(offset)
+                        .limit(limit)
+                        .count(page.size())
+                        .total(all.size())
+                        .build(), metadataFactory.success(freshness.isStale())));
+            }
+            return Mono.just(page.stream()
+                    .map(item -> ApiResponse.ok(item, metadataFactory.success(freshness.isStale())))
+                    .toList());
+        }));
+    }
+
+    private FakeAPIResponseProperty.Envelope envelope(ListOptions options) {
+        if (offset(options) < 0 || (options.getLimit() != null && options.getLimit() < 0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "offset and limit must not be negative");
+        }
+        try {
+            return options.getEnvelope() == null
+                    ? fakeAPIResponseProperty.getEnvelope()
+                    : FakeAPIResponseProperty.Envelope.of(options.getEnvelope());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static int offset(ListOptions options) {
+        return options.getOffset() == null ? 0 : options.getOffset();
+    }
+
+    private boolean notModified(ServerWebExchange exchange, List<?> all, String envelope, int offset, Integer limit) {
+        exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String accept = exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT);
+        return exchange.checkNotModified(ETags.weak(contentDigests.of(all), accept, envelope, offset, limit));
     }
 }
@@ -1,24 +1,46 @@
 package com.webflux.demo.exceptions;
 
 import com.webflux.demo.payloads.clients.ApiResponse;
+import com.webflux.demo.payloads.clients.MetadataFactory;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalErrorHandler {
+    private final MetadataFactory metadataFactory;
+
     @ExceptionHandler(InternalHttpClientException.class)
     public Mono<ResponseEntity<ApiResponse<?>>> handle(InternalHttpClientException ex) {
         return Mono.just(ResponseEntity
                 .status(ex.getCode())
-                .body(ApiResponse.error(ex.getCode(), ex.getMessage())));
+                .body(ApiResponse.error(ex.getCode(), ex.getMessage(), metadataFactory.error(null))));
+    }
+
+    @ExceptionHandler(RetryLaterException.class)
+    public Mono<ResponseEntity<ApiResponse<?>>> handle(RetryLaterException ex) {
+        return Mono.just(ResponseEntity
+                .status(ex.getStatusCode())
+                .headers(ex.getHeaders())
+                .body(ApiResponse.error(ex.getStatusCode().value(), ex.getReason(), metadataFactory.refused())));
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public Mono<ResponseEntity<ApiResponse<?>>> handle(ResponseStatusException ex) {
+        return Mono.just(ResponseEntity
+                .status(ex.getStatusCode())
+                .headers(ex.getHeaders())
+                .body(ApiResponse.error(ex.getStatusCode().value(), ex.getReason(), metadataFactory.error(null))));
     }
 
     @ExceptionHandler({RuntimeException.class, Exception.class})
     public Mono<ResponseEntity<ApiResponse<?>>> handle(Exception ex) {
         return Mono.just(ResponseEntity
                 .status(500)
-                .body(ApiResponse.error(500, ex.getMessage(), ex)));
+                .body(ApiResponse.error(500, ex.getMessage(), metadataFactory.error(ex))));
     }
 }
\ No newline at end of file
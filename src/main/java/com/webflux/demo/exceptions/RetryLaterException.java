@@ -0,0 +1,28 @@
+package com.webflux.demo.exceptions;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * A request refused locally to protect the service (rate limit, overload); the response carries
+ * {@code Retry-After} in whole seconds.
+ */
+public class RetryLaterException extends ResponseStatusException {
+    private final Duration retryAfter;
+
+    public RetryLaterException(HttpStatusCode status, String reason, Duration retryAfter) {
+        super(status, reason);
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        return headers;
+    }
+}
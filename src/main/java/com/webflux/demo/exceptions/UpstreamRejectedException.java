@@ -0,0 +1,11 @@
+package com.webflux.demo.exceptions;
+
+/**
+ * Raised when a call is refused locally (open circuit, concurrency limit) without reaching the upstream.
+ * Never retried.
+ */
+public class UpstreamRejectedException extends InternalHttpClientException {
+    public UpstreamRejectedException(String message, String url) {
+        super(message, 503, url, null, null);
+    }
+}
@@ -9,6 +9,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.io.Serializable;
+import java.util.List;
 
 @Data
 @Builder
@@ -21,30 +22,29 @@ public class ApiResponse<T> implements Serializable {
     private int code = 200;
     private String message;
     private Metadata metadata;
+    private Paging paging;
     private T data;
 
-    public static <T> ApiResponse<T> ok(T data) {
+    public static <T> ApiResponse<T> ok(T data, Metadata metadata) {
         return ApiResponse.<T>builder()
                 .code(200)
                 .message("Success")
-                .metadata(Metadata.successBlock())
+                .metadata(metadata)
                 .data(data)
                 .build();
     }
 
-    public static <T> ApiResponse<T> error(int code, String message) {
-        return ApiResponse.<T>builder()
-                .code(code)
-                .metadata(Metadata.errorBlock(null))
-                .message(message)
-                .build();
+    public static <T> ApiResponse<List<T>> page(List<T> data, Paging paging, Metadata metadata) {
+        ApiResponse<List<T>> response = ok(data, metadata);
+        response.setPaging(paging);
+        return response;
     }
 
-    public static <T> ApiResponse<T> error(int code, String message, Throwable e) {
+    public static <T> ApiResponse<T> error(int code, String message, Metadata metadata) {
         return ApiResponse.<T>builder()
                 .code(code)
                 .message(message)
-                .metadata(Metadata.errorBlock(e))
+                .metadata(metadata)
                 .build();
     }
 }
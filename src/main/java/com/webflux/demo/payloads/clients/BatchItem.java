@@ -0,0 +1,40 @@
+package com.webflux.demo.payloads.clients;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BatchItem<T> implements Serializable {
+    private Object id;
+    private int code;
+    private String message;
+    private T data;
+
+    public static <T> BatchItem<T> ok(Object id, T data) {
+        return BatchItem.<T>builder()
+                .id(id)
+                .code(200)
+                .message("Success")
+                .data(data)
+                .build();
+    }
+
+    public static <T> BatchItem<T> error(Object id, int code, String message) {
+        return BatchItem.<T>builder()
+                .id(id)
+                .code(code)
+                .message(message)
+                .build();
+    }
+}
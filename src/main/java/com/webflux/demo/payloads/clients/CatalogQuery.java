@@ -0,0 +1,21 @@
+package com.webflux.demo.payloads.clients;
+
+import lombok.Data;
+
+/**
+ * Query parameters of the catalog search endpoint. {@code q} matches whole words of title or
+ * description (all words must match); {@code sort} is one of id, title, price or rating and
+ * {@code order} asc or desc.
+ */
+@Data
+public class CatalogQuery {
+    private String q;
+    private String category;
+    private Double minPrice;
+    private Double maxPrice;
+    private Double minRating;
+    private String sort;
+    private String order;
+    private Integer offset;
+    private Integer limit;
+}
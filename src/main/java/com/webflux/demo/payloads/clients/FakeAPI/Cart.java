@@ -2,14 +2,14 @@ package com.webflux.demo.payloads.clients.FakeAPI;
 
 import lombok.Data;
 
-import java.util.Map;
+import java.util.List;
 
 @Data
 public class Cart {
     private Integer id;
     private Integer userId;
-    private Integer date;
-    private Map<Integer, CartProduct> products;
+    private String date;
+    private List<CartProduct> products;
 
     @Data
     public static class CartProduct {
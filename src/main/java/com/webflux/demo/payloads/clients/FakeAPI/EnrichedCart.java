@@ -0,0 +1,24 @@
+package com.webflux.demo.payloads.clients.FakeAPI;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class EnrichedCart {
+    private Integer id;
+    private Integer userId;
+    private String date;
+    private List<Line> lines;
+    private BigDecimal total;
+
+    @Data
+    public static class Line {
+        private Integer productId;
+        private Integer quantity;
+        // Null when the product could not be resolved; such lines are left out of the total.
+        private Product product;
+        private BigDecimal lineTotal;
+    }
+}
@@ -0,0 +1,12 @@
+package com.webflux.demo.payloads.clients.FakeAPI;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenResponse {
+    private String token;
+}
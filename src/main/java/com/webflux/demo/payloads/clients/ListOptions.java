@@ -0,0 +1,13 @@
+package com.webflux.demo.payloads.clients;
+
+import lombok.Data;
+
+/**
+ * Optional query parameters of the list endpoints: {@code envelope}, {@code offset} and {@code limit}.
+ */
+@Data
+public class ListOptions {
+    private String envelope;
+    private Integer offset;
+    private Integer limit;
+}
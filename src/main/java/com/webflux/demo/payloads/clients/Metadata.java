@@ -1,87 +1,81 @@
 package com.webflux.demo.payloads.clients;
 
 
-import brave.Span;
-import brave.Tracer;
 import brave.propagation.TraceContext;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.webflux.demo.utils.contexts.ApplicationContextUtil;
+import com.webflux.demo.utils.clocks.CoarseClock;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.apache.logging.log4j.util.Strings;
 import org.springframework.util.StringUtils;
 
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.Base64;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Response metadata. Error blocks keep the {@link TraceContext} they were created under and
+ * only render the trace and report ids when they are read, i.e. when the response is serialized.
+ * Instances are created through {@link MetadataFactory}.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
-@Slf4j
 public class Metadata implements Serializable {
-    private static Tracer tracer;
-
-    static {
-        tracer = ApplicationContextUtil.getBean(Tracer.class);
-    }
-
     private String timestamp;
     private String code;
     private String traceId;
     private String reportId;
+    private Boolean stale;
     @JsonIgnore
     private String stackTrace;
+    @JsonIgnore
+    private transient TraceContext traceContext;
+    @JsonIgnore
+    private transient boolean error;
 
-    public static Metadata successBlock() {
+    static Metadata successBlock() {
         return Metadata.builder()
-                .timestamp(now())
+                .timestamp(CoarseClock.now())
                 .build();
     }
 
-    private static String now() {
-        return ZonedDateTime.now().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    static Metadata errorBlock(TraceContext traceContext) {
+        return Metadata.builder()
+                .timestamp(CoarseClock.now())
+                .traceContext(traceContext)
+                .error(true)
+                .build();
     }
-    private static String getTracerId() {
-        return Optional.ofNullable(tracer)
-                .map(Tracer::currentSpan)
-                .map(Span::context)
-                .map(TraceContext::traceIdString)
-                .orElseGet(() -> {
-                    log.warn("No span found");
-                    return Strings.EMPTY;
-                });
+
+    public String getTraceId() {
+        if (traceId == null && error) {
+            traceId = traceContext == null ? "" : traceContext.traceIdString();
+        }
+        return traceId;
     }
-    private static String generateReportId() {
-        return Base64.getEncoder().encodeToString(Optional.ofNullable(tracer)
-                .map(Tracer::currentSpan)
-                .map(Span::context)
-                .map(context -> StringUtils.hasText(context.spanIdString()) ? context.spanIdString() : context.parentIdString())
-                .orElseGet(() -> {
-                    log.warn("No span found");
-                    return UUID.randomUUID().toString();
-                }).getBytes(StandardCharsets.UTF_8));
+
+    public String getReportId() {
+        if (reportId == null && error) {
+            String source = traceContext == null ? randomId()
+                    : StringUtils.hasText(traceContext.spanIdString()) ? traceContext.spanIdString() : traceContext.parentIdString();
+            reportId = Base64.getEncoder().encodeToString(source.getBytes(StandardCharsets.UTF_8));
+        }
+        return reportId;
     }
-    public static Metadata errorBlock(Throwable e) {
-        Metadata metadata = Metadata.builder()
-                .timestamp(now())
-                .traceId(getTracerId())
-                .reportId(generateReportId())
-                .build();
-        log.error("Got an exception, details:", e);
-        return metadata;
+
+    // A report id only needs to be unique, not unguessable; UUID.randomUUID() would hit SecureRandom.
+    private static String randomId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new UUID(random.nextLong(), random.nextLong()).toString();
     }
 
     @Override
@@ -90,6 +84,6 @@ public class Metadata implements Serializable {
     }
 
     private String getSummary() {
-        return "\n" + reportId + " - " + stackTrace;
+        return "\n" + getReportId() + " - " + stackTrace;
     }
 }
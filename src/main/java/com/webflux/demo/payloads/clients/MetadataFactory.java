@@ -0,0 +1,48 @@
+package com.webflux.demo.payloads.clients;
+
+import brave.Span;
+import brave.Tracer;
+import com.webflux.demo.services.offload.Offloader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MetadataFactory {
+    private final Tracer tracer;
+    private final Offloader offloader;
+
+    public Metadata success() {
+        return Metadata.successBlock();
+    }
+
+    public Metadata success(boolean stale) {
+        Metadata metadata = Metadata.successBlock();
+        if (stale) {
+            metadata.setStale(true);
+        }
+        return metadata;
+    }
+
+    // Requests turned away locally (load shedding, rate limits) are expected under load: the block
+    // still carries the trace, but nothing is logged.
+    public Metadata refused() {
+        Span span = tracer.currentSpan();
+        return Metadata.errorBlock(span == null ? null : span.context());
+    }
+
+    // Only the current span context is captured here; ids are rendered on serialization.
+    // The stack trace is rendered off the event loop.
+    public Metadata error(Throwable e) {
+        Span span = tracer.currentSpan();
+        offloader.execute(() -> {
+            if (span == null) {
+                log.warn("No span found");
+            }
+            log.error("Got an exception, details:", e);
+        });
+        return Metadata.errorBlock(span == null ? null : span.context());
+    }
+}
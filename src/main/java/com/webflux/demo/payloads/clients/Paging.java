@@ -0,0 +1,21 @@
+package com.webflux.demo.payloads.clients;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Paging implements Serializable {
+    private int offset;
+    private Integer limit;
+    private int count;
+    private int total;
+}
@@ -0,0 +1,88 @@
+package com.webflux.demo.services.aggregations;
+
+import com.webflux.demo.configurations.properties.FakeAPIFanOutProperty;
+import com.webflux.demo.payloads.clients.FakeAPI.Cart;
+import com.webflux.demo.payloads.clients.FakeAPI.EnrichedCart;
+import com.webflux.demo.payloads.clients.FakeAPI.Product;
+import com.webflux.demo.services.clients.FakeStoreClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CartEnrichmentService {
+    private final FakeStoreClient fakeStoreClient;
+    private final FakeAPIFanOutProperty fanOutProperty;
+
+    public Flux<EnrichedCart> getEnrichedCartsByUserId(int userId) {
+        return fakeStoreClient.getCartsByUserId(userId)
+                .collectList()
+                .flatMapMany(carts -> resolveProducts(carts)
+                        .flatMapIterable(productsById -> carts.stream()
+                                .map(cart -> enrich(cart, productsById))
+                                .toList()));
+    }
+
+    // Each distinct product id is fetched once across all carts, at most `concurrency` at a time.
+    private Mono<Map<Integer, Product>> resolveProducts(List<Cart> carts) {
+        Set<Integer> productIds = new LinkedHashSet<>();
+        for (Cart cart : carts) {
+            for (Cart.CartProduct item : lines(cart)) {
+                if (item.getProductId() != null) {
+                    productIds.add(item.getProductId());
+                }
+            }
+        }
+        return Flux.fromIterable(productIds)
+                .flatMap(id -> fakeStoreClient.getProductById(id)
+                                .onErrorResume(e -> {
+                                    log.warn("Could not resolve product {} for cart enrichment: {}", id, e.toString());
+                                    return Mono.empty();
+                                }),
+                        fanOutProperty.getConcurrency())
+                .collectMap(Product::getId);
+    }
+
+    private static EnrichedCart enrich(Cart cart, Map<Integer, Product> productsById) {
+        List<EnrichedCart.Line> lines = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Cart.CartProduct item : lines(cart)) {
+            EnrichedCart.Line line = new EnrichedCart.Line();
+            line.setProductId(item.getProductId());
+            line.setQuantity(item.getQuantity());
+            Product product = productsById.get(item.getProductId());
+            line.setProduct(product);
+            if (product != null && product.getPrice() != null) {
+                int quantity = Objects.requireNonNullElse(item.getQuantity(), 0);
+                BigDecimal lineTotal = BigDecimal.valueOf(product.getPrice()).multiply(BigDecimal.valueOf(quantity));
+                line.setLineTotal(lineTotal);
+                total = total.add(lineTotal);
+            }
+            lines.add(line);
+        }
+
+        EnrichedCart enriched = new EnrichedCart();
+        enriched.setId(cart.getId());
+        enriched.setUserId(cart.getUserId());
+        enriched.setDate(cart.getDate());
+        enriched.setLines(lines);
+        enriched.setTotal(total);
+        return enriched;
+    }
+
+    private static List<Cart.CartProduct> lines(Cart cart) {
+        return cart.getProducts() == null ? List.of() : cart.getProducts();
+    }
+}
@@ -0,0 +1,149 @@
+package com.webflux.demo.services.aggregations;
+
+import com.webflux.demo.configurations.properties.FakeAPICartWritesProperty;
+import com.webflux.demo.exceptions.UpstreamRejectedException;
+import com.webflux.demo.payloads.clients.FakeAPI.Cart;
+import com.webflux.demo.services.clients.FakeStoreClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.ContextView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional micro-batching for cart writes. Writes are queued (bounded), cut into batches by size
+ * or latency, and updates to the same cart within a batch are collapsed into one upstream PUT
+ * whose result completes every collapsed caller. Batches run one after another so writes to a
+ * cart never overtake each other; calls within a batch run with bounded concurrency.
+ */
+@Service
+public class CartWritePipeline {
+    private final FakeStoreClient fakeStoreClient;
+    private final FakeAPICartWritesProperty property;
+    private final Sinks.Many<Write> queue;
+    private final Disposable pipeline;
+    private final Counter collapsed;
+    private final Counter rejected;
+
+    public CartWritePipeline(FakeStoreClient fakeStoreClient, FakeAPICartWritesProperty property, MeterRegistry meterRegistry) {
+        this.fakeStoreClient = fakeStoreClient;
+        this.property = property;
+        this.collapsed = meterRegistry.counter("fake.api.cart.writes.collapsed");
+        this.rejected = meterRegistry.counter("fake.api.cart.writes.rejected");
+        if (!property.isEnabled()) {
+            this.queue = null;
+            this.pipeline = null;
+            return;
+        }
+        this.queue = Sinks.many().unicast().onBackpressureBuffer(Queues.<Write>get(property.getQueueCapacity()).get());
+        this.pipeline = queue.asFlux()
+                .bufferTimeout(property.getMaxBatchSize(), property.getMaxBatchLatency(), true)
+                .concatMap(batch -> Flux.fromIterable(collapse(batch))
+                        .flatMap(this::dispatch, property.getConcurrency())
+                        .then())
+                .subscribe();
+    }
+
+    public Mono<Cart> addCart(Cart cart) {
+        return queue == null ? fakeStoreClient.addCart(cart) : enqueue(null, cart);
+    }
+
+    public Mono<Cart> updateCart(int id, Cart cart) {
+        return queue == null ? fakeStoreClient.updateCart(id, cart) : enqueue(id, cart);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pipeline != null) {
+            pipeline.dispose();
+        }
+    }
+
+    private Mono<Cart> enqueue(Integer id, Cart cart) {
+        return Mono.deferContextual(ctx -> {
+            Write write = new Write(id, cart, ctx, Sinks.one());
+            Sinks.EmitResult result;
+            // The unicast sink tolerates a single producer at a time; callers arrive on many threads.
+            synchronized (queue) {
+                result = queue.tryEmitNext(write);
+            }
+            if (result.isFailure()) {
+                rejected.increment();
+                return Mono.error(new UpstreamRejectedException("Cart write queue is full (" + result + ")", "/carts"));
+            }
+            return write.result().asMono();
+        });
+    }
+
+    private Mono<Void> dispatch(List<Write> writes) {
+        Write last = writes.get(writes.size() - 1);
+        Cart cart = writes.size() == 1 ? last.cart() : merge(writes);
+        Mono<Cart> call = last.id() == null ? fakeStoreClient.addCart(cart) : fakeStoreClient.updateCart(last.id(), cart);
+        // Upstream sees the first caller's context (trace, request) as it would without batching.
+        return call.contextWrite(writes.get(0).context())
+                .doOnNext(saved -> writes.forEach(write -> write.result().tryEmitValue(saved)))
+                .switchIfEmpty(Mono.fromRunnable(() -> writes.forEach(write -> write.result().tryEmitEmpty())))
+                .onErrorResume(e -> {
+                    writes.forEach(write -> write.result().tryEmitError(e));
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    // Adds stay separate; updates of one cart id become a single group, in order of first appearance.
+    List<List<Write>> collapse(List<Write> batch) {
+        List<List<Write>> groups = new ArrayList<>(batch.size());
+        Map<Integer, List<Write>> updates = new HashMap<>();
+        for (Write write : batch) {
+            if (write.id() == null) {
+                groups.add(List.of(write));
+                continue;
+            }
+            List<Write> group = updates.get(write.id());
+            if (group == null) {
+                group = new ArrayList<>(2);
+                updates.put(write.id(), group);
+                groups.add(group);
+            } else {
+                collapsed.increment();
+            }
+            group.add(write);
+        }
+        return groups;
+    }
+
+    // Later writes win: scalar fields when set, and the product list of the newest write that has one,
+    // as a whole. Merging lines would resurrect lines a later write removed.
+    static Cart merge(List<Write> writes) {
+        Cart merged = new Cart();
+        for (Write write : writes) {
+            Cart cart = write.cart();
+            if (cart.getId() != null) {
+                merged.setId(cart.getId());
+            }
+            if (cart.getUserId() != null) {
+                merged.setUserId(cart.getUserId());
+            }
+            if (cart.getDate() != null) {
+                merged.setDate(cart.getDate());
+            }
+            if (cart.getProducts() != null) {
+                merged.setProducts(cart.getProducts());
+            }
+        }
+        return merged;
+    }
+
+    record Write(Integer id, Cart cart, ContextView context, Sinks.One<Cart> result) {
+    }
+}
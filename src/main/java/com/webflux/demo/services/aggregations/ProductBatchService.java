@@ -0,0 +1,68 @@
+package com.webflux.demo.services.aggregations;
+
+import com.webflux.demo.configurations.properties.FakeAPIFanOutProperty;
+import com.webflux.demo.exceptions.InternalHttpClientException;
+import com.webflux.demo.payloads.clients.BatchItem;
+import com.webflux.demo.payloads.clients.FakeAPI.Product;
+import com.webflux.demo.services.clients.FakeStoreClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductBatchService {
+    private final FakeStoreClient fakeStoreClient;
+    private final FakeAPIFanOutProperty fanOutProperty;
+
+    public Flux<BatchItem<Product>> getProductsByIds(Collection<Integer> ids) {
+        Set<Integer> distinctIds = new LinkedHashSet<>(ids);
+        // "[1,null]" and "?ids=1,,2" bind a null id, which getProductById(int) cannot take.
+        if (distinctIds.contains(null)) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must not contain null"));
+        }
+        if (distinctIds.size() > fanOutProperty.getMaxBatchSize()) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + fanOutProperty.getMaxBatchSize() + " distinct ids per batch"));
+        }
+        // flatMapSequential keeps request order while still running up to `concurrency` lookups at once.
+        return Flux.fromIterable(distinctIds)
+                .flatMapSequential(id -> fakeStoreClient.getProductById(id)
+                                .map(product -> BatchItem.ok(id, product))
+                                .defaultIfEmpty(notFound(id))
+                                .onErrorResume(e -> Mono.just(toErrorItem(id, e))),
+                        fanOutProperty.getConcurrency());
+    }
+
+    static <T> BatchItem<T> toErrorItem(Object id, Throwable e) {
+        // Errors raised while decoding the body reach us wrapped by WebClient.
+        if (e instanceof WebClientResponseException && e.getCause() instanceof InternalHttpClientException cause) {
+            e = cause;
+        }
+        if (e instanceof InternalHttpClientException ex) {
+            // FakeStore answers unknown ids with 200 and an empty body.
+            if (!HttpStatusCode.valueOf(ex.getCode()).isError() && !StringUtils.hasText(ex.getMessage())) {
+                return notFound(id);
+            }
+            return BatchItem.error(id, ex.getCode(), ex.getMessage());
+        }
+        log.warn("Batch item {} failed: {}", id, e.toString());
+        return BatchItem.error(id, HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
+    }
+
+    private static <T> BatchItem<T> notFound(Object id) {
+        return BatchItem.error(id, HttpStatus.NOT_FOUND.value(), "Not Found");
+    }
+}
@@ -0,0 +1,146 @@
+package com.webflux.demo.services.auth;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.webflux.demo.configurations.properties.FakeAPILoginProperty;
+import com.webflux.demo.exceptions.RetryLaterException;
+import com.webflux.demo.payloads.clients.FakeAPI.LoginRequest;
+import com.webflux.demo.payloads.clients.FakeAPI.TokenResponse;
+import com.webflux.demo.services.clients.FakeStoreClient;
+import com.webflux.demo.services.resilience.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Logins in front of the upstream /auth/login. Successful logins are cached for a short TTL under
+ * an HMAC of username and password with a per-process random key, so neither the password nor an
+ * offline-crackable hash of it is ever held. Concurrent logins with the same credentials share
+ * one upstream call; failed logins are never cached. Upstream attempts are rate limited per
+ * username and globally, and refused locally with 429 once a bucket is empty.
+ */
+@Service
+public class LoginService {
+    private static final String HMAC = "HmacSHA256";
+
+    private final FakeStoreClient fakeStoreClient;
+    private final FakeAPILoginProperty property;
+    private final SecretKeySpec hashKey;
+    private final ThreadLocal<Mac> macs;
+    private final AsyncCache<String, TokenResponse> tokens;
+    private final Cache<String, TokenBucket> userBuckets;
+    private final TokenBucket globalBucket;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter rejected;
+
+    public LoginService(FakeStoreClient fakeStoreClient, FakeAPILoginProperty property, MeterRegistry meterRegistry) {
+        this.fakeStoreClient = fakeStoreClient;
+        this.property = property;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.hashKey = new SecretKeySpec(key, HMAC);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        FakeAPILoginProperty.Cache cache = property.getCache();
+        this.tokens = cache.isEnabled()
+                ? Caffeine.newBuilder().expireAfterWrite(cache.getTtl()).maximumSize(cache.getMaximumSize()).recordStats().buildAsync()
+                : null;
+        if (tokens != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, tokens, "login-tokens", Tags.of("client", "fake-api"));
+        }
+        FakeAPILoginProperty.RateLimit perUser = property.getPerUser();
+        // A bucket is back to full after burst / permitsPerSecond, so idle ones can go.
+        Duration idle = Duration.ofMillis((long) Math.ceil(perUser.getBurst() / Math.max(perUser.getPermitsPerSecond(), 0.001) * 1000));
+        this.userBuckets = Caffeine.newBuilder().expireAfterAccess(idle).maximumSize(100_000).build();
+        FakeAPILoginProperty.RateLimit global = property.getGlobal();
+        this.globalBucket = new TokenBucket(global.getBurst(), global.getPermitsPerSecond());
+        this.hits = meterRegistry.counter("fake.api.login.requests", "result", "hit");
+        this.misses = meterRegistry.counter("fake.api.login.requests", "result", "miss");
+        this.rejected = meterRegistry.counter("fake.api.login.requests", "result", "rejected");
+    }
+
+    public Mono<TokenResponse> login(LoginRequest request) {
+        String username = request.getUsername();
+        String password = request.getPassword();
+        if (username == null || password == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "username and password are required"));
+        }
+        if (tokens == null) {
+            return Mono.defer(() -> admit(username)).then(fakeStoreClient.loginUser(username, password));
+        }
+        // The first caller's context drives the shared call; cancelling one caller must not cancel it.
+        return Mono.deferContextual(ctx -> {
+            String key = hash(username, password);
+            CompletableFuture<TokenResponse> cached = tokens.getIfPresent(key);
+            if (cached != null) {
+                hits.increment();
+                return Mono.fromFuture(cached, true);
+            }
+            return admit(username).then(Mono.defer(() -> {
+                misses.increment();
+                CompletableFuture<TokenResponse> future = tokens.get(key, (k, executor) ->
+                        fakeStoreClient.loginUser(username, password).contextWrite(ctx).toFuture());
+                return Mono.fromFuture(future, true);
+            }));
+        });
+    }
+
+    private Mono<Void> admit(String username) {
+        TokenBucket userBucket = property.getPerUser().isEnabled() ? userBuckets.get(username, this::newUserBucket) : null;
+        long wait = acquire(userBucket);
+        if (wait == 0) {
+            wait = acquire(property.getGlobal().isEnabled() ? globalBucket : null);
+            // A global refusal must not also spend the user's own budget.
+            if (wait != 0 && userBucket != null) {
+                userBucket.refund();
+            }
+        }
+        if (wait == 0) {
+            return Mono.empty();
+        }
+        rejected.increment();
+        return Mono.error(new RetryLaterException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts", Duration.ofNanos(wait)));
+    }
+
+    private static long acquire(TokenBucket bucket) {
+        return bucket == null ? 0 : bucket.tryAcquire();
+    }
+
+    private TokenBucket newUserBucket(String username) {
+        FakeAPILoginProperty.RateLimit perUser = property.getPerUser();
+        return new TokenBucket(perUser.getBurst(), perUser.getPermitsPerSecond());
+    }
+
+    // NUL cannot occur in either field of a JSON login, so "a\0bc" and "ab\0c" stay distinct.
+    private String hash(String username, String password) {
+        Mac mac = macs.get();
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(hashKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC + " is not available", e);
+        }
+    }
+}
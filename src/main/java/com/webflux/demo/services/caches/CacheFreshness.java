@@ -0,0 +1,39 @@
+package com.webflux.demo.services.caches;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.function.Function;
+
+/**
+ * Per-request marker that a {@link ReactiveCache} flips when it answers with a stale entry,
+ * so the response envelope can report it.
+ */
+public class CacheFreshness {
+    private volatile boolean stale;
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public static <T> Flux<T> trackFlux(Function<CacheFreshness, Flux<T>> body) {
+        return Flux.defer(() -> {
+            CacheFreshness freshness = new CacheFreshness();
+            return body.apply(freshness).contextWrite(ctx -> ctx.put(CacheFreshness.class, freshness));
+        });
+    }
+
+    public static <T> Mono<T> trackMono(Function<CacheFreshness, Mono<T>> body) {
+        return Mono.defer(() -> {
+            CacheFreshness freshness = new CacheFreshness();
+            return body.apply(freshness).contextWrite(ctx -> ctx.put(CacheFreshness.class, freshness));
+        });
+    }
+
+    static void markStale(ContextView ctx) {
+        ctx.getOrEmpty(CacheFreshness.class)
+                .map(CacheFreshness.class::cast)
+                .ifPresent(freshness -> freshness.stale = true);
+    }
+}
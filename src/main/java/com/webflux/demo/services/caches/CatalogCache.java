@@ -0,0 +1,98 @@
+package com.webflux.demo.services.caches;
+
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.webflux.demo.configurations.properties.FakeAPICacheProperty;
+import com.webflux.demo.payloads.clients.FakeAPI.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Slf4j
+@Component
+public class CatalogCache {
+    public static final String ALL = "all";
+    private static final String LISTS_MESSAGE = "lists";
+    private static final String PRODUCT_MESSAGE = "product ";
+
+    @Getter
+    private final ReactiveCache<String, List<Product>> products;
+    @Getter
+    private final ReactiveCache<Integer, Product> product;
+    @Getter
+    private final ReactiveCache<String, List<String>> categories;
+    @Getter
+    private final ReactiveCache<String, List<Product>> productsByCategory;
+    private final RemoteCache remoteCache;
+    private final Disposable invalidations;
+
+    public CatalogCache(FakeAPICacheProperty cacheProperty, MeterRegistry meterRegistry, ObjectProvider<RemoteCache> remoteCacheProvider) {
+        this.remoteCache = remoteCacheProvider.getIfAvailable();
+        TypeFactory types = TypeFactory.defaultInstance();
+        this.products = new ReactiveCache<>("fake-api.products", cacheProperty.getProducts(), cacheProperty, meterRegistry,
+                remoteCache, types.constructCollectionType(List.class, Product.class));
+        this.product = new ReactiveCache<>("fake-api.product", cacheProperty.getProduct(), cacheProperty, meterRegistry,
+                remoteCache, types.constructType(Product.class));
+        this.categories = new ReactiveCache<>("fake-api.categories", cacheProperty.getCategories(), cacheProperty, meterRegistry,
+                remoteCache, types.constructCollectionType(List.class, String.class));
+        this.productsByCategory = new ReactiveCache<>("fake-api.products-by-category", cacheProperty.getProductsByCategory(), cacheProperty, meterRegistry,
+                remoteCache, types.constructCollectionType(List.class, Product.class));
+        this.invalidations = remoteCache == null ? null : remoteCache.invalidations()
+                .subscribe(this::onRemoteInvalidation, e -> log.warn("Remote invalidation stream ended: {}", e.toString()));
+    }
+
+    public void invalidateProductLists() {
+        invalidateLocalProductLists();
+        broadcast(sharedProductLists(), LISTS_MESSAGE);
+    }
+
+    public void invalidateProduct(int id) {
+        product.invalidate(id);
+        invalidateLocalProductLists();
+        broadcast(Mono.when(product.invalidateShared(id), sharedProductLists()), PRODUCT_MESSAGE + id);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (invalidations != null) {
+            invalidations.dispose();
+        }
+    }
+
+    private void invalidateLocalProductLists() {
+        products.invalidateAll();
+        categories.invalidateAll();
+        productsByCategory.invalidateAll();
+    }
+
+    private Mono<Void> sharedProductLists() {
+        return Mono.when(products.invalidateAllShared(), categories.invalidateAllShared(), productsByCategory.invalidateAllShared());
+    }
+
+    // Other nodes are told only after the shared copies are gone, so they cannot reload the old value from there.
+    private void broadcast(Mono<Void> sharedEvictions, String message) {
+        if (remoteCache != null) {
+            sharedEvictions.then(remoteCache.publish(message)).subscribe();
+        }
+    }
+
+    private void onRemoteInvalidation(String message) {
+        if (message.startsWith(PRODUCT_MESSAGE)) {
+            try {
+                product.invalidate(Integer.parseInt(message.substring(PRODUCT_MESSAGE.length())));
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed cache invalidation: {}", message);
+                return;
+            }
+            invalidateLocalProductLists();
+        } else if (LISTS_MESSAGE.equals(message)) {
+            invalidateLocalProductLists();
+        }
+    }
+}
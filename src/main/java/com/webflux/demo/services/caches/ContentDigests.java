@@ -0,0 +1,35 @@
+package com.webflux.demo.services.caches;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.webflux.demo.utils.http.ETags;
+import org.springframework.stereotype.Component;
+
+/**
+ * SHA-256 of a cached value's JSON encoding, computed once per value instance: cache hits hand
+ * out the same instance, so validating any number of requests against an entry hashes it once.
+ */
+@Component
+public class ContentDigests {
+    private final ObjectMapper objectMapper;
+    // Weak identity keys: a digest lives exactly as long as the cached value it describes.
+    private final Cache<Object, byte[]> digests = Caffeine.newBuilder().weakKeys().build();
+
+    public ContentDigests(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public byte[] of(Object value) {
+        return digests.get(value, this::compute);
+    }
+
+    private byte[] compute(Object value) {
+        try {
+            return ETags.digest(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode " + value.getClass().getSimpleName() + " for its digest", e);
+        }
+    }
+}
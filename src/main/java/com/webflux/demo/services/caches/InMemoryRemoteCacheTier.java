@@ -0,0 +1,68 @@
+package com.webflux.demo.services.caches;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-local stand-in for the shared tier, for tests and single-node runs. Several
+ * {@link RemoteCache}s sharing one instance behave like nodes sharing one Redis.
+ */
+public class InMemoryRemoteCacheTier implements RemoteCacheTier {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Sinks.Many<String> channel = Sinks.many().multicast().directBestEffort();
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return Mono.fromSupplier(() -> {
+            Entry entry = entries.get(key);
+            if (entry == null || entry.isExpired()) {
+                return null;
+            }
+            return entry.value();
+        });
+    }
+
+    @Override
+    public Mono<Void> put(String key, byte[] value, Duration ttl) {
+        return Mono.fromRunnable(() -> entries.put(key, new Entry(value, System.nanoTime() + ttl.toNanos())));
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return Mono.fromRunnable(() -> entries.remove(key));
+    }
+
+    @Override
+    public Mono<Void> deleteByPrefix(String prefix) {
+        return Mono.fromRunnable(() -> entries.keySet().removeIf(key -> key.startsWith(prefix)));
+    }
+
+    @Override
+    public Mono<Void> publish(String message) {
+        return Mono.fromRunnable(() -> {
+            synchronized (channel) {
+                channel.tryEmitNext(message);
+            }
+        });
+    }
+
+    @Override
+    public Flux<String> messages() {
+        return channel.asFlux();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private record Entry(byte[] value, long expiresAtNanos) {
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+}
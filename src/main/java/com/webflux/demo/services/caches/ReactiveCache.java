@@ -0,0 +1,183 @@
+package com.webflux.demo.services.caches;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.webflux.demo.configurations.properties.FakeAPICacheProperty;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for reactive loaders. Concurrent misses for the same key
+ * share a single in-flight load; empty or failed loads are not cached.
+ * <p>
+ * In stale-while-revalidate mode an entry older than its TTL is still returned
+ * immediately while one background refresh replaces it; failed refreshes leave
+ * the stale entry in place until it is older than TTL + max-stale.
+ * <p>
+ * With a {@link RemoteCache}, a local miss first reads the shared tier and only then calls the
+ * loader, whose result is written back to the shared tier with the same TTL.
+ */
+@Slf4j
+public class ReactiveCache<K, V> {
+    private final String name;
+    private final long ttlNanos;
+    private final boolean staleWhileRevalidate;
+    private final AsyncCache<K, Entry<V>> cache;
+    private final ConcurrentHashMap<K, Boolean> refreshing = new ConcurrentHashMap<>();
+    private final RemoteCache remote;
+    private final JavaType type;
+    private final Duration ttl;
+
+    public ReactiveCache(String name, FakeAPICacheProperty.Spec spec, FakeAPICacheProperty cacheProperty, MeterRegistry meterRegistry) {
+        this(name, spec, cacheProperty, meterRegistry, null, null);
+    }
+
+    public ReactiveCache(String name, FakeAPICacheProperty.Spec spec, FakeAPICacheProperty cacheProperty, MeterRegistry meterRegistry,
+                         RemoteCache remote, JavaType type) {
+        this.name = name;
+        this.ttl = spec.getTtl();
+        this.ttlNanos = spec.getTtl().toNanos();
+        this.remote = remote;
+        this.type = type;
+        this.staleWhileRevalidate = cacheProperty.isStaleWhileRevalidate();
+        if (!cacheProperty.isEnabled()) {
+            this.cache = null;
+            return;
+        }
+        Duration retention = staleWhileRevalidate ? spec.getTtl().plus(cacheProperty.getMaxStale()) : spec.getTtl();
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(retention)
+                .maximumSize(spec.getMaximumSize())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name, Tags.of("client", "fake-api"));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        if (cache == null) {
+            return loader.apply(key);
+        }
+        // The first subscriber's context drives the load; cancelling one caller must not cancel the shared load.
+        return Mono.deferContextual(ctx -> {
+            CompletableFuture<Entry<V>> future = cache.get(key, (k, executor) -> load(k, loader, ctx).toFuture());
+            return read(key, future, loader, ctx);
+        });
+    }
+
+    /**
+     * {@link #get} for list values, streamed. A cached or in-flight entry is replayed element by
+     * element; a miss streams the loader at the caller's demand, so backpressure reaches upstream,
+     * and only an answer read to completion is cached. Concurrent streaming misses therefore each
+     * call the loader, and the shared tier is only written, not read.
+     */
+    public static <K, E> Flux<E> stream(ReactiveCache<K, List<E>> cache, K key, Function<K, Flux<E>> loader) {
+        if (cache.cache == null) {
+            return loader.apply(key);
+        }
+        return Flux.deferContextual(ctx -> {
+            CompletableFuture<Entry<List<E>>> cached = cache.cache.getIfPresent(key);
+            if (cached != null) {
+                return cache.read(key, cached, k -> loader.apply(k).collectList().filter(items -> !items.isEmpty()), ctx)
+                        .flatMapIterable(items -> items);
+            }
+            List<E> items = new ArrayList<>();
+            return loader.apply(key)
+                    .doOnNext(items::add)
+                    .doOnComplete(() -> {
+                        if (!items.isEmpty()) {
+                            cache.fill(key, List.copyOf(items));
+                        }
+                    });
+        });
+    }
+
+    public void invalidate(K key) {
+        if (cache != null) {
+            cache.synchronous().invalidate(key);
+        }
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.synchronous().invalidateAll();
+        }
+    }
+
+    // invalidate/invalidateAll only touch this node; these drop the shared copies.
+    public Mono<Void> invalidateShared(K key) {
+        return remote == null ? Mono.empty() : remote.evict(name, key);
+    }
+
+    public Mono<Void> invalidateAllShared() {
+        return remote == null ? Mono.empty() : remote.evictAll(name);
+    }
+
+    private Mono<V> read(K key, CompletableFuture<Entry<V>> future, Function<K, Mono<V>> loader, ContextView ctx) {
+        return Mono.fromFuture(future, true)
+                .map(entry -> {
+                    if (staleWhileRevalidate && entry.isOlderThan(ttlNanos)) {
+                        CacheFreshness.markStale(ctx);
+                        refresh(key, loader, ctx);
+                    }
+                    return entry.value();
+                });
+    }
+
+    private Mono<Entry<V>> load(K key, Function<K, Mono<V>> loader, ContextView ctx) {
+        return loadThrough(key, loader)
+                .map(value -> new Entry<>(value, System.nanoTime()))
+                .contextWrite(ctx);
+    }
+
+    // A value fetched by the caller itself, recorded like a loaded one unless a load got there first.
+    private void fill(K key, V value) {
+        if (remote != null) {
+            remote.put(name, key, value, ttl);
+        }
+        cache.asMap().putIfAbsent(key, CompletableFuture.completedFuture(new Entry<>(value, System.nanoTime())));
+    }
+
+    private Mono<V> loadThrough(K key, Function<K, Mono<V>> loader) {
+        if (remote == null) {
+            return loader.apply(key);
+        }
+        return remote.<V>get(name, key, type)
+                .switchIfEmpty(Mono.defer(() -> loader.apply(key)
+                        .doOnNext(value -> remote.put(name, key, value, ttl))));
+    }
+
+    private void refresh(K key, Function<K, Mono<V>> loader, ContextView ctx) {
+        if (refreshing.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+        load(key, loader, ctx)
+                .doFinally(signal -> refreshing.remove(key))
+                .subscribe(
+                        entry -> cache.put(key, CompletableFuture.completedFuture(entry)),
+                        error -> log.warn("Refresh of {}[{}] failed, keep serving stale entry: {}", name, key, error.toString())
+                );
+    }
+
+    private record Entry<V>(V value, long loadedAtNanos) {
+        boolean isOlderThan(long ageNanos) {
+            return System.nanoTime() - loadedAtNanos > ageNanos;
+        }
+    }
+}
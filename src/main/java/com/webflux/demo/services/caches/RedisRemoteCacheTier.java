@@ -0,0 +1,104 @@
+package com.webflux.demo.services.caches;
+
+import com.webflux.demo.configurations.properties.FakeAPICacheProperty;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanStream;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.reactive.RedisReactiveCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.lettuce.core.pubsub.api.reactive.ChannelMessage;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * {@link RemoteCacheTier} on any server speaking the Redis protocol, through Lettuce's reactive API.
+ * Connections are opened on first use (a Redis outage does not prevent startup) and then kept;
+ * Lettuce reconnects and re-subscribes on its own.
+ */
+@Slf4j
+public class RedisRemoteCacheTier implements RemoteCacheTier, AutoCloseable {
+    private static final int SCAN_BATCH = 100;
+
+    private final RedisClient client;
+    private final String channel;
+    private final Mono<RedisReactiveCommands<String, byte[]>> commands;
+    private final Flux<String> messages;
+
+    public RedisRemoteCacheTier(FakeAPICacheProperty.Remote config) {
+        // Lettuce's own timeout also covers the connection handshake, so it keeps its default;
+        // RemoteCache bounds each operation with client.fake.api.cache.remote.timeout instead.
+        RedisURI uri = RedisURI.create(config.getUrl());
+        this.client = RedisClient.create(uri);
+        this.channel = config.getChannel();
+        this.commands = Mono.fromCompletionStage(() -> client.connectAsync(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE), uri))
+                .map(StatefulRedisConnection::reactive)
+                // Keep the connection once established; a failed connect is remembered for a second so an
+                // outage costs one attempt per second rather than one per request.
+                .cache(connection -> Duration.ofMillis(Long.MAX_VALUE), error -> Duration.ofSeconds(1), () -> Duration.ZERO);
+        this.messages = Mono.fromCompletionStage(() -> client.connectPubSubAsync(StringCodec.UTF8, uri))
+                .flatMapMany(this::subscribe)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Redis invalidation channel unavailable: {}", signal.failure().toString())))
+                .share();
+        // Connect in the background so the first request does not pay for the handshake.
+        commands.subscribe(redis -> log.info("Connected to Redis at {}", uri.toURI()),
+                error -> log.warn("Redis unavailable, remote cache reads will miss: {}", error.toString()));
+    }
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return commands.flatMap(redis -> redis.get(key));
+    }
+
+    @Override
+    public Mono<Void> put(String key, byte[] value, Duration ttl) {
+        return commands.flatMap(redis -> redis.set(key, value, SetArgs.Builder.px(ttl))).then();
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return commands.flatMap(redis -> redis.unlink(key)).then();
+    }
+
+    // SCAN rather than KEYS so a large keyspace is walked in batches without blocking the server.
+    @Override
+    public Mono<Void> deleteByPrefix(String prefix) {
+        return commands.flatMap(redis -> ScanStream.scan(redis, ScanArgs.Builder.matches(prefix + "*").limit(SCAN_BATCH))
+                .buffer(SCAN_BATCH)
+                .concatMap(keys -> redis.unlink(keys.toArray(String[]::new)))
+                .then());
+    }
+
+    @Override
+    public Mono<Void> publish(String message) {
+        return commands.flatMap(redis -> redis.publish(channel, message.getBytes(StandardCharsets.UTF_8))).then();
+    }
+
+    @Override
+    public Flux<String> messages() {
+        return messages;
+    }
+
+    @Override
+    public void close() {
+        client.shutdown();
+    }
+
+    private Flux<String> subscribe(StatefulRedisPubSubConnection<String, String> connection) {
+        return connection.reactive().subscribe(channel)
+                .thenMany(connection.reactive().observeChannels())
+                .map(ChannelMessage::getMessage);
+    }
+}
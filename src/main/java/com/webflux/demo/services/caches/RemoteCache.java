@@ -0,0 +1,105 @@
+package com.webflux.demo.services.caches;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webflux.demo.configurations.properties.FakeAPICacheProperty;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Typed view of the {@link RemoteCacheTier}: values are stored as Smile (binary JSON), every
+ * remote operation is bounded by the configured timeout, and failures degrade to a miss so the
+ * shared tier can never fail a request. Invalidation messages carry the sender's node id so a
+ * node does not react to its own broadcasts.
+ */
+@Slf4j
+public class RemoteCache {
+    private final RemoteCacheTier tier;
+    private final ObjectMapper smileMapper;
+    private final FakeAPICacheProperty.Remote config;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter errors;
+
+    public RemoteCache(RemoteCacheTier tier, ObjectMapper smileMapper, FakeAPICacheProperty.Remote config, MeterRegistry meterRegistry) {
+        this.tier = tier;
+        this.smileMapper = smileMapper;
+        this.config = config;
+        this.hits = meterRegistry.counter("fake.api.cache.remote.requests", "result", "hit");
+        this.misses = meterRegistry.counter("fake.api.cache.remote.requests", "result", "miss");
+        this.errors = meterRegistry.counter("fake.api.cache.remote.requests", "result", "error");
+    }
+
+    public <V> Mono<V> get(String cache, Object key, JavaType type) {
+        return tier.get(key(cache, key))
+                .timeout(config.getTimeout())
+                .<V>handle((bytes, sink) -> {
+                    try {
+                        sink.next(smileMapper.readValue(bytes, type));
+                    } catch (IOException e) {
+                        sink.error(e);
+                    }
+                })
+                .doOnNext(value -> hits.increment())
+                .switchIfEmpty(Mono.fromRunnable(misses::increment))
+                .onErrorResume(e -> {
+                    errors.increment();
+                    log.debug("Remote cache read {}[{}] failed: {}", cache, key, e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    // Fire-and-forget: the caller already has the value and must not wait for the shared tier.
+    public void put(String cache, Object key, Object value, Duration ttl) {
+        byte[] bytes;
+        try {
+            bytes = smileMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            errors.increment();
+            log.debug("Remote cache encode {}[{}] failed: {}", cache, key, e.toString());
+            return;
+        }
+        bounded(tier.put(key(cache, key), bytes, ttl)).subscribe();
+    }
+
+    public Mono<Void> evict(String cache, Object key) {
+        return bounded(tier.delete(key(cache, key)));
+    }
+
+    public Mono<Void> evictAll(String cache) {
+        return bounded(tier.deleteByPrefix(key(cache, "")));
+    }
+
+    public Mono<Void> publish(String message) {
+        return bounded(tier.publish(nodeId + " " + message));
+    }
+
+    // Invalidations published by other nodes, without the sender prefix.
+    public Flux<String> invalidations() {
+        String own = nodeId + " ";
+        return tier.messages()
+                .filter(message -> !message.startsWith(own))
+                .map(message -> message.substring(message.indexOf(' ') + 1));
+    }
+
+    private Mono<Void> bounded(Mono<Void> operation) {
+        return operation.timeout(config.getTimeout())
+                .onErrorResume(e -> {
+                    errors.increment();
+                    log.debug("Remote cache write failed: {}", e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    private String key(String cache, Object key) {
+        return config.getKeyPrefix() + cache + ":" + key;
+    }
+}
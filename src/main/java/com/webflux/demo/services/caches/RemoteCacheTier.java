@@ -0,0 +1,26 @@
+package com.webflux.demo.services.caches;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Shared cache tier behind the per-node {@link ReactiveCache}s: opaque byte values by key plus a
+ * broadcast channel for invalidations. Implementations must not block the calling thread.
+ */
+public interface RemoteCacheTier {
+
+    Mono<byte[]> get(String key);
+
+    Mono<Void> put(String key, byte[] value, Duration ttl);
+
+    Mono<Void> delete(String key);
+
+    Mono<Void> deleteByPrefix(String prefix);
+
+    Mono<Void> publish(String message);
+
+    // Messages published by any node, including this one; resubscribes after connection loss.
+    Flux<String> messages();
+}
@@ -0,0 +1,42 @@
+package com.webflux.demo.services.caches;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.webflux.demo.configurations.properties.FakeAPICacheProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Last validator (ETag) seen per upstream resource together with the value decoded from it, so an
+ * expired {@link ReactiveCache} entry can be reloaded with a conditional request and a 304 reuses
+ * the value instead of transferring and decoding the payload again.
+ */
+@Component
+public class UpstreamValidators {
+    private final Cache<String, Entry<?>> entries;
+
+    public UpstreamValidators(FakeAPICacheProperty cacheProperty) {
+        FakeAPICacheProperty.UpstreamValidators config = cacheProperty.getUpstreamValidators();
+        this.entries = config.isEnabled()
+                ? Caffeine.newBuilder().maximumSize(config.getMaximumSize()).build()
+                : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> Entry<V> get(String key) {
+        return entries == null ? null : (Entry<V>) entries.getIfPresent(key);
+    }
+
+    public <V> void put(String key, String etag, V value) {
+        if (entries == null) {
+            return;
+        }
+        if (etag == null) {
+            entries.invalidate(key);
+        } else {
+            entries.put(key, new Entry<>(etag, value));
+        }
+    }
+
+    public record Entry<V>(String etag, V value) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.webflux.demo.services.catalog;
+
+import com.webflux.demo.configurations.properties.FakeAPICatalogIndexProperty;
+import com.webflux.demo.payloads.clients.CatalogQuery;
+import com.webflux.demo.services.clients.FakeStoreClient;
+import com.webflux.demo.services.offload.Offloader;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Materialized product catalog served from memory. A refresh builds a complete new
+ * {@link CatalogSnapshot} off to the side and swaps it in atomically, so queries always see one
+ * consistent catalog and never wait for upstream once the first snapshot exists.
+ */
+@Slf4j
+@Service
+public class CatalogIndex {
+    private final FakeStoreClient fakeStoreClient;
+    private final FakeAPICatalogIndexProperty indexProperty;
+    private final Offloader offloader;
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private Mono<CatalogSnapshot> refreshing;
+
+    public CatalogIndex(FakeStoreClient fakeStoreClient, FakeAPICatalogIndexProperty indexProperty, Offloader offloader,
+                        MeterRegistry meterRegistry) {
+        this.fakeStoreClient = fakeStoreClient;
+        this.indexProperty = indexProperty;
+        this.offloader = offloader;
+        Gauge.builder("fake.api.catalog.index.size", current, ref -> ref.get() == null ? 0 : ref.get().size())
+                .register(meterRegistry);
+        Gauge.builder("fake.api.catalog.index.age", current,
+                        ref -> ref.get() == null ? Double.NaN : (System.currentTimeMillis() - ref.get().getBuiltAtMillis()) / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public Mono<CatalogSnapshot.Result> search(CatalogQuery query) {
+        int offset = query.getOffset() == null ? 0 : query.getOffset();
+        int limit = query.getLimit() == null ? indexProperty.getDefaultPageSize() : query.getLimit();
+        if (offset < 0 || limit < 0 || limit > indexProperty.getMaxPageSize()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "offset must not be negative and limit must be between 0 and " + indexProperty.getMaxPageSize()));
+        }
+        return snapshot().handle((snapshot, sink) -> {
+            try {
+                sink.next(snapshot.query(query, offset, limit));
+            } catch (IllegalArgumentException e) {
+                sink.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+            }
+        });
+    }
+
+    public Mono<CatalogSnapshot> snapshot() {
+        CatalogSnapshot snapshot = current.get();
+        return snapshot != null ? Mono.just(snapshot) : refresh();
+    }
+
+    // Concurrent callers share one rebuild.
+    public synchronized Mono<CatalogSnapshot> refresh() {
+        if (refreshing == null) {
+            refreshing = fakeStoreClient.getAllProducts()
+                    .collectList()
+                    // Sorting and indexing the whole catalog is too long a stretch for an event loop.
+                    .publishOn(offloader.scheduler())
+                    .map(CatalogSnapshot::of)
+                    .doOnNext(snapshot -> {
+                        current.set(snapshot);
+                        log.info("Catalog index rebuilt with {} products", snapshot.size());
+                    })
+                    .doFinally(signal -> clearRefreshing())
+                    .share();
+        }
+        return refreshing;
+    }
+
+    @Scheduled(fixedDelayString = "${client.fake.api.catalog-index.refresh-interval:5m}")
+    public Mono<Void> scheduledRefresh() {
+        return refresh()
+                .doOnError(e -> log.warn("Catalog index refresh failed, keep serving the previous snapshot: {}", e.toString()))
+                .onErrorComplete()
+                .then();
+    }
+
+    private synchronized void clearRefreshing() {
+        refreshing = null;
+    }
+}
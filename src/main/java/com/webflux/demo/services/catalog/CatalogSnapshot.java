@@ -0,0 +1,198 @@
+package com.webflux.demo.services.catalog;
+
+import com.webflux.demo.payloads.clients.CatalogQuery;
+import com.webflux.demo.payloads.clients.FakeAPI.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.DoublePredicate;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable, query-ready view of the product catalog. Products are addressed by their position;
+ * filters produce {@link BitSet}s over positions and every sort order is a pre-sorted array of
+ * positions, so a query is one pass over at most the whole catalog and never sorts.
+ */
+public final class CatalogSnapshot {
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final BitSet NONE = new BitSet();
+
+    private final Product[] products;
+    private final Map<Sort, int[]> sorted = new HashMap<>();
+    private final double[] pricesAscending;
+    private final double[] ratingsAscending;
+    private final Map<String, BitSet> byCategory = new HashMap<>();
+    private final Map<String, BitSet> byToken = new HashMap<>();
+    private final long builtAtMillis;
+
+    public enum Sort {
+        ID, TITLE, PRICE, RATING;
+
+        static Sort of(String value) {
+            if (value == null) {
+                return ID;
+            }
+            for (Sort sort : values()) {
+                if (sort.name().equalsIgnoreCase(value)) {
+                    return sort;
+                }
+            }
+            throw new IllegalArgumentException("Unknown sort: " + value);
+        }
+    }
+
+    public record Result(List<Product> items, int offset, int limit, int total) {
+    }
+
+    private CatalogSnapshot(List<Product> catalog) {
+        this.products = catalog.toArray(Product[]::new);
+        this.builtAtMillis = System.currentTimeMillis();
+        sorted.put(Sort.ID, sortBy(Comparator.comparing(Product::getId, Comparator.nullsLast(Comparator.naturalOrder()))));
+        sorted.put(Sort.TITLE, sortBy(Comparator.comparing(Product::getTitle, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))));
+        sorted.put(Sort.PRICE, sortBy(Comparator.comparingDouble(CatalogSnapshot::price)));
+        sorted.put(Sort.RATING, sortBy(Comparator.comparingDouble(CatalogSnapshot::rating)));
+        this.pricesAscending = valuesAt(sorted.get(Sort.PRICE), CatalogSnapshot::price);
+        this.ratingsAscending = valuesAt(sorted.get(Sort.RATING), CatalogSnapshot::rating);
+        for (int position = 0; position < products.length; position++) {
+            Product product = products[position];
+            if (product.getCategory() != null) {
+                byCategory.computeIfAbsent(product.getCategory().toLowerCase(Locale.ROOT), key -> new BitSet()).set(position);
+            }
+            for (String token : tokens(product.getTitle())) {
+                byToken.computeIfAbsent(token, key -> new BitSet()).set(position);
+            }
+            for (String token : tokens(product.getDescription())) {
+                byToken.computeIfAbsent(token, key -> new BitSet()).set(position);
+            }
+        }
+    }
+
+    public static CatalogSnapshot of(List<Product> catalog) {
+        return new CatalogSnapshot(catalog);
+    }
+
+    public int size() {
+        return products.length;
+    }
+
+    public long getBuiltAtMillis() {
+        return builtAtMillis;
+    }
+
+    // Throws IllegalArgumentException for an unknown sort or order.
+    public Result query(CatalogQuery query, int offset, int limit) {
+        Sort sortBy = Sort.of(query.getSort());
+        boolean descending = descending(query.getOrder());
+
+        BitSet matches = null;
+        if (query.getCategory() != null) {
+            matches = and(matches, byCategory.getOrDefault(query.getCategory().toLowerCase(Locale.ROOT), NONE));
+        }
+        for (String token : tokens(query.getQ())) {
+            matches = and(matches, byToken.getOrDefault(token, NONE));
+        }
+        if (query.getMinPrice() != null || query.getMaxPrice() != null) {
+            matches = and(matches, range(sorted.get(Sort.PRICE), pricesAscending, query.getMinPrice(), query.getMaxPrice()));
+        }
+        if (query.getMinRating() != null) {
+            matches = and(matches, range(sorted.get(Sort.RATING), ratingsAscending, query.getMinRating(), null));
+        }
+
+        int[] positions = sorted.get(sortBy);
+        List<Product> page = new ArrayList<>(Math.min(limit, products.length));
+        int total = 0;
+        for (int i = 0; i < positions.length; i++) {
+            int position = positions[descending ? positions.length - 1 - i : i];
+            if (matches != null && !matches.get(position)) {
+                continue;
+            }
+            if (total >= offset && page.size() < limit) {
+                page.add(products[position]);
+            }
+            total++;
+        }
+        return new Result(page, offset, limit, total);
+    }
+
+    private int[] sortBy(Comparator<Product> comparator) {
+        return IntStream.range(0, products.length)
+                .boxed()
+                .sorted((a, b) -> comparator.compare(products[a], products[b]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private double[] valuesAt(int[] positions, ToDoubleFunction<Product> value) {
+        return Arrays.stream(positions).mapToDouble(position -> value.applyAsDouble(products[position])).toArray();
+    }
+
+    // Positions whose value lies in [min, max]; values are ascending with missing ones (NaN) last.
+    private static BitSet range(int[] positions, double[] values, Double min, Double max) {
+        int from = min == null ? 0 : firstIndex(values, v -> v >= min);
+        int to = max == null ? firstIndex(values, Double::isNaN) : firstIndex(values, v -> !(v <= max));
+        BitSet result = new BitSet();
+        for (int i = from; i < to; i++) {
+            result.set(positions[i]);
+        }
+        return result;
+    }
+
+    // First index whose value satisfies a predicate that is monotonic over the sorted values.
+    private static int firstIndex(double[] values, DoublePredicate predicate) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (predicate.test(values[mid])) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static BitSet and(BitSet current, BitSet filter) {
+        BitSet result = (BitSet) filter.clone();
+        if (current != null) {
+            result.and(current);
+        }
+        return result;
+    }
+
+    private static boolean descending(String order) {
+        if (order == null || order.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (order.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unknown order: " + order);
+    }
+
+    static List<String> tokens(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return NON_WORD.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(token -> token.length() > 1)
+                .distinct()
+                .toList();
+    }
+
+    private static double price(Product product) {
+        return product.getPrice() == null ? Double.NaN : product.getPrice();
+    }
+
+    private static double rating(Product product) {
+        return product.getRating() == null || product.getRating().getRate() == null ? Double.NaN : product.getRating().getRate();
+    }
+}
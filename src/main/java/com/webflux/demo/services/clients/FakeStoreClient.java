@@ -3,63 +3,135 @@ package com.webflux.demo.services.clients;
 import com.webflux.demo.payloads.clients.FakeAPI.Cart;
 import com.webflux.demo.payloads.clients.FakeAPI.LoginRequest;
 import com.webflux.demo.payloads.clients.FakeAPI.Product;
+import com.webflux.demo.payloads.clients.FakeAPI.TokenResponse;
 import com.webflux.demo.payloads.clients.FakeAPI.User;
+import com.webflux.demo.services.caches.CatalogCache;
+import com.webflux.demo.services.caches.ReactiveCache;
+import com.webflux.demo.services.caches.UpstreamValidators;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilderFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @Service
 @Slf4j
 public class FakeStoreClient {
+    // Expands templates the same way WebClient does, to key single-flight calls by resolved URI.
+    private static final UriBuilderFactory URIS = new DefaultUriBuilderFactory();
+
     private final WebClient fakeAPIWebClient;
+    private final CatalogCache catalogCache;
+    private final UpstreamValidators upstreamValidators;
+    private final SingleFlight singleFlight;
 
-    public FakeStoreClient(@Qualifier("fakeAPIWebClient") WebClient fakeAPIWebClient) {
+    public FakeStoreClient(@Qualifier("fakeAPIWebClient") WebClient fakeAPIWebClient, CatalogCache catalogCache,
+                           UpstreamValidators upstreamValidators, SingleFlight singleFlight) {
         this.fakeAPIWebClient = fakeAPIWebClient;
+        this.catalogCache = catalogCache;
+        this.upstreamValidators = upstreamValidators;
+        this.singleFlight = singleFlight;
     }
 
     // === Products ===
     public Flux<Product> getAllProducts() {
-        return fakeAPIWebClient.get()
-                .uri("/products")
-                .retrieve()
-                .bodyToFlux(Product.class);
+        return getProductList().flatMapIterable(products -> products);
+    }
+
+    // The cached list instance itself, for callers that key work on the cache entry.
+    public Mono<List<Product>> getProductList() {
+        return catalogCache.getProducts()
+                .get(CatalogCache.ALL, key -> fetchListRevalidating("/products", Product.class, "/products"));
+    }
+
+    // Emits each product as soon as it is decoded instead of waiting for the whole list.
+    public Flux<Product> streamAllProducts() {
+        return ReactiveCache.stream(catalogCache.getProducts(), CatalogCache.ALL, key -> fetchAllProducts());
     }
 
     public Mono<Product> getProductById(int id) {
-        return fakeAPIWebClient.get()
-                .uri("/products/{id}", id)
-                .retrieve()
-                .bodyToMono(Product.class);
+        return catalogCache.getProduct()
+                .get(id, key -> getOne(Product.class, "/products/{id}", key));
     }
 
     public Flux<String> getAllCategories() {
-        return fakeAPIWebClient.get()
-                .uri("/products/categories")
-                .retrieve()
-                .bodyToFlux(String.class);
+        return getCategoryList().flatMapIterable(categories -> categories);
+    }
+
+    public Mono<List<String>> getCategoryList() {
+        return catalogCache.getCategories()
+                .get(CatalogCache.ALL, key -> fetchListRevalidating("/products/categories", String.class, "/products/categories"));
     }
 
     public Flux<Product> getProductsByCategory(String category) {
-        return fakeAPIWebClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/products/category/{category}")
-                        .build(category))
+        return getProductListByCategory(category).flatMapIterable(products -> products);
+    }
+
+    public Mono<List<Product>> getProductListByCategory(String category) {
+        return catalogCache.getProductsByCategory()
+                .get(category, key -> fetchListRevalidating("/products/category/" + key, Product.class, "/products/category/{category}", key));
+    }
+
+    public Flux<Product> streamProductsByCategory(String category) {
+        return ReactiveCache.stream(catalogCache.getProductsByCategory(), category, this::fetchProductsByCategory);
+    }
+
+    private Flux<Product> fetchAllProducts() {
+        return getMany(Product.class, "/products");
+    }
+
+    private Flux<Product> fetchProductsByCategory(String category) {
+        return getMany(Product.class, "/products/category/{category}", category);
+    }
+
+    // Conditional GET when upstream gave a validator last time: a 304 returns the list decoded then.
+    private <E> Mono<List<E>> fetchListRevalidating(String validatorKey, Class<E> type, String uriTemplate, Object... uriVariables) {
+        return singleFlight.get(URIS.expand(uriTemplate, uriVariables).toString(), () -> {
+            UpstreamValidators.Entry<List<E>> previous = upstreamValidators.get(validatorKey);
+            return fakeAPIWebClient.get()
+                    .uri(uriTemplate, uriVariables)
+                    .headers(headers -> {
+                        if (previous != null) {
+                            headers.setIfNoneMatch(previous.etag());
+                        }
+                    })
+                    .retrieve()
+                    .toEntityList(type)
+                    .map(entity -> {
+                        if (previous != null && entity.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                            return previous.value();
+                        }
+                        List<E> items = entity.getBody() == null ? List.of() : entity.getBody();
+                        upstreamValidators.put(validatorKey, entity.getHeaders().getETag(), items);
+                        return items;
+                    });
+        });
+    }
+
+    // Idempotent GETs go through single-flight; writes below always issue their own call.
+    private <T> Mono<T> getOne(Class<T> type, String uriTemplate, Object... uriVariables) {
+        return singleFlight.get(URIS.expand(uriTemplate, uriVariables).toString(), () -> fakeAPIWebClient.get()
+                .uri(uriTemplate, uriVariables)
                 .retrieve()
-                .bodyToFlux(Product.class);
+                .bodyToMono(type));
     }
 
-    public Flux<Product> getLimitedProducts(int limit) {
-        return fakeAPIWebClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/products")
-                        .queryParam("limit", limit)
-                        .build())
+    private <T> Flux<T> getMany(Class<T> type, String uriTemplate, Object... uriVariables) {
+        return singleFlight.getMany(URIS.expand(uriTemplate, uriVariables).toString(), () -> fakeAPIWebClient.get()
+                .uri(uriTemplate, uriVariables)
                 .retrieve()
-                .bodyToFlux(Product.class);
+                .bodyToFlux(type));
+    }
+
+    public Flux<Product> getLimitedProducts(int limit) {
+        return getMany(Product.class, "/products?limit={limit}", limit);
     }
 
     public Mono<Product> addProduct(Product product) {
@@ -68,7 +140,8 @@ public class FakeStoreClient {
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(product)
                 .retrieve()
-                .bodyToMono(Product.class);
+                .bodyToMono(Product.class)
+                .doFinally(signal -> catalogCache.invalidateProductLists());
     }
 
     public Mono<Product> updateProduct(int id, Product product) {
@@ -77,39 +150,30 @@ public class FakeStoreClient {
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(product)
                 .retrieve()
-                .bodyToMono(Product.class);
+                .bodyToMono(Product.class)
+                .doFinally(signal -> catalogCache.invalidateProduct(id));
     }
 
     public Mono<Void> deleteProduct(int id) {
         return fakeAPIWebClient.delete()
                 .uri("/products/{id}", id)
                 .retrieve()
-                .bodyToMono(Void.class);
+                .bodyToMono(Void.class)
+                .doFinally(signal -> catalogCache.invalidateProduct(id));
     }
 
     // === Carts ===
 
     public Flux<Cart> getAllCarts() {
-        return fakeAPIWebClient.get()
-                .uri("/carts")
-                .retrieve()
-                .bodyToFlux(Cart.class);
+        return getMany(Cart.class, "/carts");
     }
 
     public Mono<Cart> getCartById(int id) {
-        return fakeAPIWebClient.get()
-                .uri("/carts/{id}", id)
-                .retrieve()
-                .bodyToMono(Cart.class);
+        return getOne(Cart.class, "/carts/{id}", id);
     }
 
     public Flux<Cart> getCartsByUserId(int userId) {
-        return fakeAPIWebClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/carts/user/{userId}")
-                        .build(userId))
-                .retrieve()
-                .bodyToFlux(Cart.class);
+        return getMany(Cart.class, "/carts/user/{userId}", userId);
     }
 
     public Mono<Cart> addCart(Cart cart) {
@@ -140,17 +204,11 @@ public class FakeStoreClient {
     // === Users ===
 
     public Flux<User> getAllUsers() {
-        return fakeAPIWebClient.get()
-                .uri("/users")
-                .retrieve()
-                .bodyToFlux(User.class);
+        return getMany(User.class, "/users");
     }
 
     public Mono<User> getUserById(int id) {
-        return fakeAPIWebClient.get()
-                .uri("/users/{id}", id)
-                .retrieve()
-                .bodyToMono(User.class);
+        return getOne(User.class, "/users/{id}", id);
     }
 
     public Mono<User> addUser(User user) {
@@ -179,12 +237,12 @@ public class FakeStoreClient {
     }
 
     // === Auth (Login) ===
-    public Mono<User> loginUser(String username, String password) {
+    public Mono<TokenResponse> loginUser(String username, String password) {
         return fakeAPIWebClient.post()
                 .uri("/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(new LoginRequest(username, password))
                 .retrieve()
-                .bodyToMono(User.class);
+                .bodyToMono(TokenResponse.class);
     }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.webflux.demo.services.clients;
+
+import com.webflux.demo.configurations.properties.FakeAPISingleFlightProperty;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical in-flight GETs: callers arriving while a call for the same URI is
+ * outstanding subscribe to it instead of issuing their own. The first caller's context drives
+ * the shared call, which is cancelled only once every caller has cancelled. Entries are removed
+ * as soon as the call terminates, so later callers always start a new call. Single-value and
+ * multi-value calls are tracked apart, so a list fetch and a stream of the same URI never join
+ * each other's flight.
+ */
+@Component
+public class SingleFlight {
+    private final FakeAPISingleFlightProperty property;
+    private final Map<String, Flux<?>> inFlightOne = new ConcurrentHashMap<>();
+    private final Map<String, Flux<?>> inFlightMany = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public SingleFlight(FakeAPISingleFlightProperty property, MeterRegistry meterRegistry) {
+        this.property = property;
+        this.coalesced = meterRegistry.counter("fake.api.single.flight.coalesced");
+        Gauge.builder("fake.api.single.flight.in.flight", this, flights -> flights.inFlightOne.size() + flights.inFlightMany.size())
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> get(String uri, Supplier<Mono<T>> call) {
+        if (!property.isEnabled()) {
+            return Mono.defer(call);
+        }
+        return share(inFlightOne, "GET " + uri, () -> call.get().flux()).singleOrEmpty();
+    }
+
+    public <T> Flux<T> getMany(String uri, Supplier<Flux<T>> call) {
+        if (!property.isEnabled()) {
+            return Flux.defer(call);
+        }
+        return share(inFlightMany, "GET " + uri, call);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Flux<T> share(Map<String, Flux<?>> inFlight, String key, Supplier<Flux<T>> call) {
+        return Flux.defer(() -> {
+            Flux<T> existing = (Flux<T>) inFlight.get(key);
+            if (existing != null) {
+                coalesced.increment();
+                return existing;
+            }
+            Flight<T> flight = new Flight<>();
+            flight.shared = Flux.defer(call)
+                    .doFinally(signal -> inFlight.remove(key, flight.shared))
+                    // replay rather than publish: a caller that joins between termination and removal
+                    // still gets the result instead of a bare completion.
+                    .replay()
+                    .refCount(1);
+            Flux<T> raced = (Flux<T>) inFlight.putIfAbsent(key, flight.shared);
+            if (raced != null) {
+                coalesced.increment();
+                return raced;
+            }
+            return flight.shared;
+        });
+    }
+
+    private static class Flight<T> {
+        private Flux<T> shared;
+    }
+}
@@ -0,0 +1,136 @@
+package com.webflux.demo.services.metrics;
+
+import com.webflux.demo.configurations.properties.FakeAPIMetricsProperty;
+import com.webflux.demo.utils.http.UriTemplates;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Times every fakeAPIWebClient attempt up to the response headers, tagged by URI template,
+ * method, status and outcome, and records request/response body sizes and in-flight calls.
+ * Registered innermost so retries and hedges show up as separate attempts.
+ */
+@Component
+public class FakeAPIClientMetricsFilter implements ExchangeFilterFunction {
+    private static final String NONE = "none";
+
+    private final FakeAPIMetricsProperty property;
+    private final MeterRegistry meterRegistry;
+    private final Meter.MeterProvider<Timer> latency;
+    private final Meter.MeterProvider<DistributionSummary> requestSize;
+    private final Meter.MeterProvider<DistributionSummary> responseSize;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public FakeAPIClientMetricsFilter(FakeAPIMetricsProperty property, MeterRegistry meterRegistry) {
+        this.property = property;
+        this.meterRegistry = meterRegistry;
+        this.latency = MeterSpecs.latency("fake.api.client.requests", "Upstream FakeStore calls, up to the response headers", property, meterRegistry);
+        this.requestSize = MeterSpecs.size("fake.api.client.request.size", "Upstream request bodies", property, meterRegistry);
+        this.responseSize = MeterSpecs.size("fake.api.client.response.size", "Upstream response bodies, after decompression", property, meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!property.isEnabled()) {
+            return next.exchange(request);
+        }
+        String method = request.method().name();
+        String uri = UriTemplates.of(request);
+        AtomicInteger active = inFlight(method, uri);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            AtomicLong requestBytes = new AtomicLong(-1);
+            AtomicBoolean settled = new AtomicBoolean();
+            active.incrementAndGet();
+            return next.exchange(counting(request, requestBytes))
+                    .map(response -> {
+                        if (!settled.compareAndSet(false, true)) {
+                            return response;
+                        }
+                        active.decrementAndGet();
+                        int status = response.statusCode().value();
+                        Tags tags = tags(method, uri, String.valueOf(status), Outcome.forStatus(status).name(), NONE);
+                        latency.withTags(tags).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        recordRequestSize(tags, requestBytes);
+                        DistributionSummary size = responseSize.withTags(tags);
+                        AtomicLong responseBytes = new AtomicLong();
+                        return response.mutate()
+                                .body(body -> body
+                                        .doOnNext(buffer -> responseBytes.addAndGet(buffer.readableByteCount()))
+                                        .doOnComplete(() -> size.record(responseBytes.get())))
+                                .build();
+                    })
+                    .doOnError(e -> {
+                        if (settled.compareAndSet(false, true)) {
+                            active.decrementAndGet();
+                            Tags tags = tags(method, uri, "IO_ERROR", Outcome.UNKNOWN.name(), e.getClass().getSimpleName());
+                            latency.withTags(tags).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (settled.compareAndSet(false, true)) {
+                            active.decrementAndGet();
+                            Tags tags = tags(method, uri, "CANCELLED", Outcome.UNKNOWN.name(), NONE);
+                            latency.withTags(tags).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                    });
+        });
+    }
+
+    private void recordRequestSize(Tags tags, AtomicLong requestBytes) {
+        // Stays -1 for bodiless requests, which would otherwise pile up as zero-byte samples.
+        long bytes = requestBytes.get();
+        if (bytes >= 0) {
+            requestSize.withTags(tags).record(bytes);
+        }
+    }
+
+    private AtomicInteger inFlight(String method, String uri) {
+        return inFlight.computeIfAbsent(method + " " + uri, key -> {
+            AtomicInteger active = new AtomicInteger();
+            Gauge.builder("fake.api.client.requests.active", active, AtomicInteger::get)
+                    .description("Upstream FakeStore calls awaiting response headers")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry);
+            return active;
+        });
+    }
+
+    private static ClientRequest counting(ClientRequest request, AtomicLong bytes) {
+        return ClientRequest.from(request)
+                .body((outputMessage, context) -> request.body().insert(new ClientHttpRequestDecorator(outputMessage) {
+                    @Override
+                    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                        bytes.compareAndSet(-1, 0);
+                        return super.writeWith(Flux.from(body).doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount())));
+                    }
+                }, context))
+                .build();
+    }
+
+    private static Tags tags(String method, String uri, String status, String outcome, String exception) {
+        return Tags.of("method", method, "uri", uri, "status", status, "outcome", outcome, "exception", exception);
+    }
+}
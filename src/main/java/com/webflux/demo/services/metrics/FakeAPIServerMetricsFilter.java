@@ -0,0 +1,92 @@
+package com.webflux.demo.services.metrics;
+
+import com.webflux.demo.configurations.properties.FakeAPIMetricsProperty;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request/response body sizes per FakeAPIController route, tagged like http.server.requests
+ * (which already provides the per-route timer and active-request count). Response bytes are
+ * counted before server compression.
+ */
+@Component
+public class FakeAPIServerMetricsFilter implements WebFilter {
+    private static final String PATH_PREFIX = "/api/fake-api/";
+
+    private final FakeAPIMetricsProperty property;
+    private final Meter.MeterProvider<DistributionSummary> requestSize;
+    private final Meter.MeterProvider<DistributionSummary> responseSize;
+
+    public FakeAPIServerMetricsFilter(FakeAPIMetricsProperty property, MeterRegistry meterRegistry) {
+        this.property = property;
+        this.requestSize = MeterSpecs.size("fake.api.server.request.size", "FakeAPIController request bodies", property, meterRegistry);
+        this.responseSize = MeterSpecs.size("fake.api.server.response.size", "FakeAPIController response bodies, before compression", property, meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!property.isEnabled() || !exchange.getRequest().getPath().value().startsWith(PATH_PREFIX)) {
+            return chain.filter(exchange);
+        }
+        AtomicLong requestBytes = new AtomicLong(-1);
+        AtomicLong responseBytes = new AtomicLong();
+        ServerWebExchange counted = exchange.mutate()
+                .request(new ServerHttpRequestDecorator(exchange.getRequest()) {
+                    @Override
+                    public Flux<DataBuffer> getBody() {
+                        requestBytes.compareAndSet(-1, 0);
+                        return super.getBody().doOnNext(buffer -> requestBytes.addAndGet(buffer.readableByteCount()));
+                    }
+                })
+                .response(new ServerHttpResponseDecorator(exchange.getResponse()) {
+                    @Override
+                    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                        return super.writeWith(Flux.from(body).doOnNext(buffer -> responseBytes.addAndGet(buffer.readableByteCount())));
+                    }
+
+                    @Override
+                    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                        return super.writeAndFlushWith(Flux.from(body).map(chunk ->
+                                Flux.from(chunk).doOnNext(buffer -> responseBytes.addAndGet(buffer.readableByteCount()))));
+                    }
+                })
+                .build();
+        return chain.filter(counted)
+                .doFinally(signal -> {
+                    Tags tags = tags(counted);
+                    if (requestBytes.get() >= 0) {
+                        requestSize.withTags(tags).record(requestBytes.get());
+                    }
+                    responseSize.withTags(tags).record(responseBytes.get());
+                });
+    }
+
+    private static Tags tags(ServerWebExchange exchange) {
+        PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        int code = status == null ? 200 : status.value();
+        return Tags.of(
+                "method", exchange.getRequest().getMethod().name(),
+                "uri", pattern == null ? "UNKNOWN" : pattern.getPatternString(),
+                "status", String.valueOf(code),
+                "outcome", Outcome.forStatus(code).name());
+    }
+}
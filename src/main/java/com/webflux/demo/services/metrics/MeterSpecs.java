@@ -0,0 +1,32 @@
+package com.webflux.demo.services.metrics;
+
+import com.webflux.demo.configurations.properties.FakeAPIMetricsProperty;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+
+import java.time.Duration;
+
+final class MeterSpecs {
+    private MeterSpecs() {
+    }
+
+    static Meter.MeterProvider<Timer> latency(String name, String description, FakeAPIMetricsProperty property, MeterRegistry registry) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram(property.isPercentileHistogram())
+                .serviceLevelObjectives(property.getLatencySlo().toArray(Duration[]::new))
+                .withRegistry(registry);
+    }
+
+    static Meter.MeterProvider<DistributionSummary> size(String name, String description, FakeAPIMetricsProperty property, MeterRegistry registry) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit(BaseUnits.BYTES)
+                .publishPercentileHistogram(property.isPercentileHistogram())
+                .serviceLevelObjectives(property.getSizeSlo().stream().mapToDouble(size -> size.toBytes()).toArray())
+                .withRegistry(registry);
+    }
+}
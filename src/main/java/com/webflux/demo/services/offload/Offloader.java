@@ -0,0 +1,107 @@
+package com.webflux.demo.services.offload;
+
+import com.webflux.demo.configurations.properties.FakeAPIOffloadProperty;
+import com.webflux.demo.utils.contexts.TraceContexts;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs work that must not sit on a Netty event loop: stack-trace and body logging, and CPU-heavy
+ * rebuilds. Backed by virtual threads when the runtime has them (JDK 21+), otherwise by a
+ * bounded-elastic pool. Fire-and-forget tasks are capped so an error storm sheds log lines
+ * instead of queueing without bound.
+ */
+@Slf4j
+@Component
+public class Offloader {
+    private final Scheduler scheduler;
+    private final int maxPending;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Counter rejected;
+
+    public Offloader(FakeAPIOffloadProperty property, MeterRegistry meterRegistry) {
+        this.scheduler = create(property);
+        this.maxPending = property.getMaxPending();
+        this.rejected = meterRegistry.counter("fake.api.offload.rejected");
+        Gauge.builder("fake.api.offload.pending", pending, AtomicInteger::get)
+                .description("Offloaded fire-and-forget tasks not yet completed")
+                .register(meterRegistry);
+    }
+
+    public Scheduler scheduler() {
+        return scheduler;
+    }
+
+    // Runs the task off the calling thread with the caller's trace context; drops it when too many are pending.
+    public void execute(Runnable task) {
+        submit(TraceContexts.wrap(task));
+    }
+
+    // As above, with the trace context taken from a Reactor context (for callers on an event loop).
+    public void execute(ContextView context, Runnable task) {
+        submit(TraceContexts.wrap(context, task));
+    }
+
+    private void submit(Runnable task) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            rejected.increment();
+            return;
+        }
+        try {
+            scheduler.schedule(() -> {
+                try {
+                    task.run();
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            rejected.increment();
+        }
+    }
+
+    @PreDestroy
+    public void dispose() {
+        scheduler.dispose();
+    }
+
+    private static Scheduler create(FakeAPIOffloadProperty property) {
+        FakeAPIOffloadProperty.OffloadType type = property.getType();
+        if (type != FakeAPIOffloadProperty.OffloadType.BOUNDED_ELASTIC) {
+            ExecutorService virtual = virtualThreadExecutor();
+            if (virtual != null) {
+                log.info("Offloading to virtual threads");
+                return Schedulers.fromExecutorService(virtual, property.getName());
+            }
+            if (type == FakeAPIOffloadProperty.OffloadType.VIRTUAL) {
+                log.warn("Virtual threads need JDK 21+ (running {}), offloading to a bounded-elastic pool", Runtime.version());
+            }
+        }
+        int threadCap = property.getThreadCap() > 0 ? property.getThreadCap() : Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE;
+        log.info("Offloading to a bounded-elastic pool of up to {} threads", threadCap);
+        return Schedulers.newBoundedElastic(threadCap, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, property.getName(), 60, true);
+    }
+
+    // Compiled against Java 17, so the JDK 21 factory is looked up at runtime.
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.webflux.demo.services.resilience;
+
+import com.webflux.demo.configurations.properties.FakeAPIResilienceProperty;
+
+/**
+ * AIMD concurrency limit with a gradient-style latency signal: the limit grows by roughly one
+ * per window of successful calls while the pool is actually in use, and shrinks
+ * multiplicatively on drops or when the short-term RTT climbs well above the long-term
+ * baseline (i.e. upstream latency is rising, not merely jittery). Decreases happen at most
+ * once per short-term RTT, so one slow burst counts once.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double SHORT_RTT_SMOOTHING = 0.1;
+    private static final double LONG_RTT_SMOOTHING = 0.01;
+
+    private final FakeAPIResilienceProperty.Limiter config;
+    private double limit;
+    private int inFlight;
+    private double shortRttNanos;
+    private double longRttNanos;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(FakeAPIResilienceProperty.Limiter config) {
+        this.config = config;
+        this.limit = config.getInitialLimit();
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void onSuccess(long rttNanos) {
+        inFlight--;
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+        }
+        shortRttNanos += SHORT_RTT_SMOOTHING * (rttNanos - shortRttNanos);
+        longRttNanos += LONG_RTT_SMOOTHING * (rttNanos - longRttNanos);
+        if (shortRttNanos > longRttNanos * config.getRttTolerance()) {
+            decrease();
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(config.getMaxLimit(), limit + 1.0 / limit);
+        }
+    }
+
+    public synchronized void onDropped() {
+        inFlight--;
+        decrease();
+    }
+
+    public synchronized void onIgnored() {
+        inFlight--;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private void decrease() {
+        long now = System.nanoTime();
+        if (now - lastDecreaseNanos < shortRttNanos) {
+            return;
+        }
+        lastDecreaseNanos = now;
+        limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+    }
+}
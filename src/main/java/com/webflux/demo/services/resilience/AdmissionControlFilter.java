@@ -0,0 +1,130 @@
+package com.webflux.demo.services.resilience;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webflux.demo.configurations.properties.FakeAPIAdmissionProperty;
+import com.webflux.demo.exceptions.GlobalErrorHandler;
+import com.webflux.demo.exceptions.RetryLaterException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admission control in front of FakeAPIController: each route group (first path segment under
+ * /api/fake-api/) gets its own {@link RouteAdmission}, GET/HEAD queue as reads and everything else
+ * as writes. NDJSON/SSE requests form a separate "streams" group, so long-lived streams neither hold
+ * ordinary slots nor inflate the service time that deadline shedding is estimated from. Shed requests are answered straight away with GlobalErrorHandler's 503 and
+ * {@code Retry-After}. Runs right after the http.server.requests observation so sheds show up there.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter implements WebFilter {
+    private static final String PATH_PREFIX = "/api/fake-api/";
+    private static final Set<String> GROUPS = Set.of("products", "carts", "users", "auth");
+    private static final String OTHER = "other";
+    private static final String STREAMS = "streams";
+
+    private final FakeAPIAdmissionProperty property;
+    private final GlobalErrorHandler globalErrorHandler;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteAdmission> routes = new ConcurrentHashMap<>();
+
+    public AdmissionControlFilter(FakeAPIAdmissionProperty property, GlobalErrorHandler globalErrorHandler,
+                                  ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.property = property;
+        this.globalErrorHandler = globalErrorHandler;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        if (!property.isEnabled() || !path.startsWith(PATH_PREFIX)) {
+            return chain.filter(exchange);
+        }
+        RouteAdmission route = routes.computeIfAbsent(isStream(exchange) ? STREAMS : routeGroup(path), this::newRoute);
+        HttpMethod method = exchange.getRequest().getMethod();
+        RouteAdmission.Priority priority = method == HttpMethod.GET || method == HttpMethod.HEAD
+                ? RouteAdmission.Priority.READ : RouteAdmission.Priority.WRITE;
+        long deadline = System.nanoTime() + property.getDeadline().toNanos();
+        return route.acquire(priority, deadline)
+                .onErrorResume(RetryLaterException.class, e -> reject(exchange, e).then(Mono.empty()))
+                .flatMap(permit -> chain.filter(exchange).doFinally(signal -> permit.release()));
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, RetryLaterException e) {
+        return globalErrorHandler.handle(e).flatMap(entity -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(entity.getStatusCode());
+            response.getHeaders().addAll(entity.getHeaders());
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            byte[] body;
+            try {
+                body = objectMapper.writeValueAsBytes(entity.getBody());
+            } catch (JsonProcessingException ex) {
+                return Mono.error(ex);
+            }
+            DataBuffer buffer = response.bufferFactory().wrap(body);
+            return response.writeWith(Mono.just(buffer));
+        });
+    }
+
+    private RouteAdmission newRoute(String group) {
+        FakeAPIAdmissionProperty.Limit limit = property.getRoutes().getOrDefault(group, property.getDefaults());
+        Map<RouteAdmission.Shed, Counter> shed = new EnumMap<>(RouteAdmission.Shed.class);
+        for (RouteAdmission.Shed reason : RouteAdmission.Shed.values()) {
+            shed.put(reason, meterRegistry.counter("fake.api.admission.shed", "route", group, "reason", reason.name().toLowerCase()));
+        }
+        RouteAdmission route = new RouteAdmission(limit.getMaxConcurrent(), limit.getQueueCapacity(), Schedulers.parallel(),
+                reason -> shed.get(reason).increment());
+        Gauge.builder("fake.api.admission.queue.depth", route, RouteAdmission::getQueued)
+                .description("Requests waiting for a FakeAPIController slot")
+                .tag("route", group)
+                .register(meterRegistry);
+        Gauge.builder("fake.api.admission.in.flight", route, RouteAdmission::getInFlight)
+                .tag("route", group)
+                .register(meterRegistry);
+        return route;
+    }
+
+    private static boolean isStream(ServerWebExchange exchange) {
+        List<String> accept = exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return false;
+        }
+        for (String value : accept) {
+            if (value.contains(MediaType.APPLICATION_NDJSON_VALUE) || value.contains(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Unknown segments share one group so arbitrary paths cannot create routes (and meters) without bound.
+    private String routeGroup(String path) {
+        int end = path.indexOf('/', PATH_PREFIX.length());
+        String group = end < 0 ? path.substring(PATH_PREFIX.length()) : path.substring(PATH_PREFIX.length(), end);
+        return GROUPS.contains(group) || property.getRoutes().containsKey(group) ? group : OTHER;
+    }
+}
@@ -0,0 +1,106 @@
+package com.webflux.demo.services.resilience;
+
+import com.webflux.demo.configurations.properties.FakeAPIResilienceProperty;
+
+/**
+ * Count-based circuit breaker. Opens when the failure rate over the last
+ * {@code slidingWindowSize} calls reaches the threshold, then lets a few probe
+ * calls through after {@code openDuration} to decide whether to close again.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final FakeAPIResilienceProperty.Breaker config;
+    private final boolean[] window;
+    private int windowIndex;
+    private int recorded;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(FakeAPIResilienceProperty.Breaker config) {
+        this.config = config;
+        this.window = new boolean[Math.max(1, config.getSlidingWindowSize())];
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < config.getOpenDuration().toNanos()) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = config.getHalfOpenCalls();
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= config.getHalfOpenCalls()) {
+                close();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (recorded >= config.getMinimumCalls() && failures * 100 >= config.getFailureRateThreshold() * recorded) {
+            open();
+        }
+    }
+
+    // A call that ended without a verdict (cancelled, client error) gives its half-open permit back.
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[windowIndex]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            failures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        failures = 0;
+        windowIndex = 0;
+    }
+}
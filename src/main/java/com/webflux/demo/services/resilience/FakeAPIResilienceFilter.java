@@ -0,0 +1,253 @@
+package com.webflux.demo.services.resilience;
+
+import com.webflux.demo.configurations.properties.FakeAPIResilienceProperty;
+import com.webflux.demo.exceptions.InternalHttpClientException;
+import com.webflux.demo.exceptions.UpstreamRejectedException;
+import com.webflux.demo.utils.http.UriTemplates;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps every fakeAPIWebClient exchange with, from the outside in: retry with jittered
+ * backoff and hedging (GET only), a per-endpoint circuit breaker, and an adaptive
+ * concurrency limit shared by the whole upstream.
+ */
+@Component
+@Slf4j
+public class FakeAPIResilienceFilter implements ExchangeFilterFunction {
+    private final FakeAPIResilienceProperty property;
+    private final MeterRegistry meterRegistry;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> latencies = new ConcurrentHashMap<>();
+    private final Counter limiterRejections;
+
+    public FakeAPIResilienceFilter(FakeAPIResilienceProperty property, MeterRegistry meterRegistry) {
+        this.property = property;
+        this.meterRegistry = meterRegistry;
+        this.limiter = new AdaptiveConcurrencyLimiter(property.getLimiter());
+        this.limiterRejections = meterRegistry.counter("fake.api.resilience.limiter.rejected");
+        Gauge.builder("fake.api.resilience.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("fake.api.resilience.limiter.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String endpoint = request.method().name() + " " + UriTemplates.of(request);
+        boolean idempotent = HttpMethod.GET.equals(request.method());
+
+        Mono<ClientResponse> attempt = Mono.defer(() -> guarded(endpoint, request, next));
+        Mono<ClientResponse> call = idempotent && property.getHedge().isEnabled() ? hedged(endpoint, attempt) : attempt;
+        if (!idempotent || !property.getRetry().isEnabled() || property.getRetry().getMaxRetries() <= 0) {
+            return call;
+        }
+        FakeAPIResilienceProperty.RetryPolicy retry = property.getRetry();
+        return call.retryWhen(Retry.backoff(retry.getMaxRetries(), retry.getInitialBackoff())
+                .maxBackoff(retry.getMaxBackoff())
+                .jitter(retry.getJitter())
+                .filter(FakeAPIResilienceFilter::isFailure)
+                .doBeforeRetry(signal -> {
+                    meterRegistry.counter("fake.api.resilience.retries", "endpoint", endpoint).increment();
+                    log.warn("Retrying {} (attempt {}): {}", endpoint, signal.totalRetries() + 1, signal.failure().toString());
+                })
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    private Mono<ClientResponse> guarded(String endpoint, ClientRequest request, ExchangeFunction next) {
+        CircuitBreaker breaker = breaker(endpoint);
+        if (breaker != null && !breaker.tryAcquire()) {
+            meterRegistry.counter("fake.api.resilience.breaker.rejected", "endpoint", endpoint).increment();
+            return Mono.error(new UpstreamRejectedException("Circuit breaker open for " + endpoint, String.valueOf(request.url())));
+        }
+        boolean limited = property.getLimiter().isEnabled();
+        if (limited && !limiter.tryAcquire()) {
+            if (breaker != null) {
+                breaker.onIgnored();
+            }
+            limiterRejections.increment();
+            return Mono.error(new UpstreamRejectedException("Concurrency limit reached for " + endpoint, String.valueOf(request.url())));
+        }
+
+        long start = System.nanoTime();
+        AtomicBoolean settled = new AtomicBoolean();
+        AtomicBoolean responded = new AtomicBoolean();
+        return next.exchange(request)
+                .map(response -> {
+                    responded.set(true);
+                    if (response.statusCode().is5xxServerError()) {
+                        if (settled.compareAndSet(false, true)) {
+                            onFailure(breaker, limited);
+                        }
+                        return response;
+                    }
+                    // The slot stays taken, and latency keeps running, until the body has been read:
+                    // a slow or large body holds upstream capacity just as long as slow headers do.
+                    return response.mutate()
+                            .body(body -> body
+                                    .doOnComplete(() -> {
+                                        if (settled.compareAndSet(false, true)) {
+                                            onSuccess(endpoint, breaker, limited, System.nanoTime() - start);
+                                        }
+                                    })
+                                    .doOnError(e -> settle(settled, breaker, limited, e))
+                                    .doOnCancel(() -> {
+                                        if (settled.compareAndSet(false, true)) {
+                                            onIgnored(breaker, limited);
+                                        }
+                                    }))
+                            .build();
+                })
+                .doOnError(e -> settle(settled, breaker, limited, e))
+                .doOnCancel(() -> {
+                    if (!responded.get() && settled.compareAndSet(false, true)) {
+                        onIgnored(breaker, limited);
+                    }
+                });
+    }
+
+    // Fires a second attempt once the primary has been outstanding longer than the endpoint's
+    // recent p95; whichever produces a response first wins and the other is cancelled. A primary
+    // that fails before the hedge fires cancels it, so fast errors are neither delayed nor repeated.
+    private Mono<ClientResponse> hedged(String endpoint, Mono<ClientResponse> attempt) {
+        Duration delay = hedgeDelay(endpoint);
+        if (delay == null) {
+            return attempt;
+        }
+        AtomicBoolean won = new AtomicBoolean();
+        Sinks.One<Long> primaryFailed = Sinks.one();
+        Mono<ClientResponse> primary = claim(attempt, won).doOnError(primaryFailed::tryEmitError);
+        Mono<ClientResponse> hedge = Mono.firstWithSignal(Mono.delay(delay), primaryFailed.asMono())
+                .then(Mono.defer(() -> {
+                    meterRegistry.counter("fake.api.resilience.hedges", "endpoint", endpoint).increment();
+                    return claim(attempt, won);
+                }));
+        return Mono.firstWithValue(primary, hedge)
+                .onErrorMap(NoSuchElementException.class, FakeAPIResilienceFilter::firstCause);
+    }
+
+    private static Mono<ClientResponse> claim(Mono<ClientResponse> attempt, AtomicBoolean won) {
+        return attempt.flatMap(response -> won.compareAndSet(false, true)
+                ? Mono.just(response)
+                : response.releaseBody().then(Mono.empty()));
+    }
+
+    private Duration hedgeDelay(String endpoint) {
+        FakeAPIResilienceProperty.Hedge hedge = property.getHedge();
+        Timer timer = latency(endpoint);
+        if (timer.count() < hedge.getMinSamples()) {
+            return null;
+        }
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == hedge.getPercentile()) {
+                Duration delay = Duration.ofNanos((long) value.value(TimeUnit.NANOSECONDS));
+                if (delay.compareTo(hedge.getMinDelay()) < 0) {
+                    return hedge.getMinDelay();
+                }
+                return delay.compareTo(hedge.getMaxDelay()) > 0 ? hedge.getMaxDelay() : delay;
+            }
+        }
+        return null;
+    }
+
+    private CircuitBreaker breaker(String endpoint) {
+        if (!property.getBreaker().isEnabled()) {
+            return null;
+        }
+        return breakers.computeIfAbsent(endpoint, key -> {
+            CircuitBreaker breaker = new CircuitBreaker(property.getBreaker());
+            Gauge.builder("fake.api.resilience.breaker.state", breaker, b -> b.getState().ordinal())
+                    .description("0 = closed, 1 = open, 2 = half-open")
+                    .tag("endpoint", key)
+                    .register(meterRegistry);
+            return breaker;
+        });
+    }
+
+    private Timer latency(String endpoint) {
+        return latencies.computeIfAbsent(endpoint, key -> Timer.builder("fake.api.resilience.latency")
+                .tag("endpoint", key)
+                .publishPercentiles(property.getHedge().getPercentile())
+                .register(meterRegistry));
+    }
+
+    private void settle(AtomicBoolean settled, CircuitBreaker breaker, boolean limited, Throwable e) {
+        if (!settled.compareAndSet(false, true)) {
+            return;
+        }
+        if (isFailure(e)) {
+            onFailure(breaker, limited);
+        } else {
+            onIgnored(breaker, limited);
+        }
+    }
+
+    private void onSuccess(String endpoint, CircuitBreaker breaker, boolean limited, long elapsed) {
+        latency(endpoint).record(elapsed, TimeUnit.NANOSECONDS);
+        if (breaker != null) {
+            breaker.onSuccess();
+        }
+        if (limited) {
+            limiter.onSuccess(elapsed);
+        }
+    }
+
+    private void onFailure(CircuitBreaker breaker, boolean limited) {
+        if (breaker != null) {
+            breaker.onFailure();
+        }
+        if (limited) {
+            limiter.onDropped();
+        }
+    }
+
+    private void onIgnored(CircuitBreaker breaker, boolean limited) {
+        if (breaker != null) {
+            breaker.onIgnored();
+        }
+        if (limited) {
+            limiter.onIgnored();
+        }
+    }
+
+    // Server errors, I/O errors and timeouts count against the upstream; client errors and local rejections do not.
+    private static boolean isFailure(Throwable e) {
+        if (e instanceof UpstreamRejectedException) {
+            return false;
+        }
+        if (e instanceof InternalHttpClientException ex) {
+            return ex.getCode() >= 500;
+        }
+        return e instanceof WebClientRequestException || e instanceof TimeoutException;
+    }
+
+    private static Throwable firstCause(NoSuchElementException e) {
+        List<Throwable> causes = e.getCause() == null ? List.of() : Exceptions.unwrapMultiple(e.getCause());
+        return causes.isEmpty() ? e : causes.get(0);
+    }
+}
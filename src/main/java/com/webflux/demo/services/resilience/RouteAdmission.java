@@ -0,0 +1,215 @@
+package com.webflux.demo.services.resilience;
+
+import com.webflux.demo.exceptions.RetryLaterException;
+import org.springframework.http.HttpStatus;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Concurrency limit for one route group with a bounded, two-class wait queue. Reads are let in
+ * before writes, and a read arriving at a full queue displaces the newest queued write. A request
+ * is shed up front when its estimated wait already misses its deadline, and leaves the queue once
+ * its remaining time drops below the route's typical (EWMA) service time.
+ */
+public class RouteAdmission {
+    private static final double SERVICE_TIME_SMOOTHING = 0.1;
+
+    public enum Priority {
+        READ, WRITE
+    }
+
+    public enum Shed {
+        QUEUE_FULL, DEADLINE, PRIORITY
+    }
+
+    // Called with the reason whenever a request is refused.
+    public interface ShedListener {
+        void onShed(Shed reason);
+    }
+
+    private final int maxConcurrent;
+    private final int queueCapacity;
+    private final Scheduler timer;
+    private final ShedListener listener;
+    private final ArrayDeque<Waiter> reads = new ArrayDeque<>();
+    private final ArrayDeque<Waiter> writes = new ArrayDeque<>();
+    private int inFlight;
+    private volatile double serviceNanos;
+
+    public RouteAdmission(int maxConcurrent, int queueCapacity, Scheduler timer, ShedListener listener) {
+        this.maxConcurrent = maxConcurrent;
+        this.queueCapacity = queueCapacity;
+        this.timer = timer;
+        this.listener = listener;
+    }
+
+    public Mono<Permit> acquire(Priority priority, long deadlineNanos) {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(priority, sink);
+            sink.onCancel(() -> abandon(waiter));
+            admit(waiter, deadlineNanos);
+        });
+    }
+
+    public synchronized int getQueued() {
+        return reads.size() + writes.size();
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    // Grants and rejections complete the caller's Mono, which runs its request, so they happen outside the lock.
+    private void admit(Waiter waiter, long deadlineNanos) {
+        long now = System.nanoTime();
+        Shed shed = null;
+        Waiter displaced = null;
+        synchronized (this) {
+            if (inFlight < maxConcurrent && reads.isEmpty() && writes.isEmpty()) {
+                inFlight++;
+            } else {
+                int queued = reads.size() + writes.size();
+                if (queued >= queueCapacity && waiter.priority == Priority.READ && !writes.isEmpty()) {
+                    displaced = writes.pollLast();
+                    queued--;
+                }
+                // Everyone ahead is served first, maxConcurrent at a time.
+                long waitNanos = (long) ((queued + 1.0) / maxConcurrent * serviceNanos);
+                long timeout = deadlineNanos - now - (long) serviceNanos;
+                if (queued >= queueCapacity) {
+                    shed = Shed.QUEUE_FULL;
+                } else if (waitNanos > timeout) {
+                    shed = Shed.DEADLINE;
+                    if (displaced != null) {
+                        writes.addLast(displaced);
+                        displaced = null;
+                    }
+                } else {
+                    (waiter.priority == Priority.READ ? reads : writes).addLast(waiter);
+                    waiter.timer = timer.schedule(() -> expire(waiter), timeout, TimeUnit.NANOSECONDS);
+                    if (displaced != null) {
+                        displaced.cancelTimer();
+                    }
+                }
+            }
+        }
+        if (displaced != null) {
+            reject(displaced, Shed.PRIORITY);
+        }
+        if (shed != null) {
+            reject(waiter, shed);
+        } else if (waiter.timer == null) {
+            grant(waiter, now);
+        }
+    }
+
+    private void release(Permit permit) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            long sample = now - permit.startNanos;
+            serviceNanos = serviceNanos == 0 ? sample : serviceNanos + SERVICE_TIME_SMOOTHING * (sample - serviceNanos);
+        }
+        while (true) {
+            Waiter next;
+            synchronized (this) {
+                next = reads.isEmpty() ? writes.pollFirst() : reads.pollFirst();
+                if (next == null) {
+                    inFlight--;
+                    return;
+                }
+                next.cancelTimer();
+            }
+            // The slot passes straight to the next waiter that is still there.
+            if (!next.cancelled) {
+                grant(next, now);
+                return;
+            }
+        }
+    }
+
+    private void grant(Waiter waiter, long now) {
+        Permit permit = new Permit(now);
+        waiter.permit = permit;
+        waiter.sink.success(permit);
+        // A caller that cancelled meanwhile never sees the permit.
+        if (waiter.cancelled) {
+            permit.release();
+        }
+    }
+
+    private void expire(Waiter waiter) {
+        synchronized (this) {
+            if (!remove(waiter)) {
+                return;
+            }
+        }
+        reject(waiter, Shed.DEADLINE);
+    }
+
+    private void abandon(Waiter waiter) {
+        waiter.cancelled = true;
+        synchronized (this) {
+            if (remove(waiter)) {
+                waiter.cancelTimer();
+                return;
+            }
+        }
+        // Granted, but the caller is gone; releasing twice is harmless.
+        Permit permit = waiter.permit;
+        if (permit != null) {
+            permit.release();
+        }
+    }
+
+    private boolean remove(Waiter waiter) {
+        return (waiter.priority == Priority.READ ? reads : writes).remove(waiter);
+    }
+
+    private void reject(Waiter waiter, Shed reason) {
+        listener.onShed(reason);
+        long retryAfter = (long) Math.max(serviceNanos, TimeUnit.SECONDS.toNanos(1));
+        waiter.sink.error(new RetryLaterException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Server busy (" + reason.name().toLowerCase() + "), retry later", Duration.ofNanos(retryAfter)));
+    }
+
+    public final class Permit {
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                RouteAdmission.this.release(this);
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final Priority priority;
+        private final MonoSink<Permit> sink;
+        private Disposable timer;
+        private volatile Permit permit;
+        private volatile boolean cancelled;
+
+        private Waiter(Priority priority, MonoSink<Permit> sink) {
+            this.priority = priority;
+            this.sink = sink;
+        }
+
+        private void cancelTimer() {
+            if (timer != null) {
+                timer.dispose();
+            }
+        }
+    }
+}
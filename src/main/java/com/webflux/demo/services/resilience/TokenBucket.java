@@ -0,0 +1,36 @@
+package com.webflux.demo.services.resilience;
+
+/**
+ * Token bucket holding up to {@code burst} permits, refilled continuously at
+ * {@code permitsPerSecond}. A refused acquire reports how long until the next permit.
+ */
+public class TokenBucket {
+    private final double capacity;
+    private final double permitsPerNano;
+    private double permits;
+    private long lastRefillNanos;
+
+    public TokenBucket(int burst, double permitsPerSecond) {
+        this.capacity = burst;
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.permits = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    // 0 when a permit was taken, otherwise the nanoseconds until one is available.
+    public synchronized long tryAcquire() {
+        long now = System.nanoTime();
+        permits = Math.min(capacity, permits + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+        if (permits >= 1) {
+            permits--;
+            return 0;
+        }
+        return permitsPerNano <= 0 ? Long.MAX_VALUE : (long) Math.ceil((1 - permits) / permitsPerNano);
+    }
+
+    // Returns a permit taken by tryAcquire whose call did not go ahead.
+    public synchronized void refund() {
+        permits = Math.min(capacity, permits + 1);
+    }
+}
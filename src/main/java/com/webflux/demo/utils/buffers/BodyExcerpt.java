@@ -0,0 +1,43 @@
+package com.webflux.demo.utils.buffers;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Keeps a bounded copy of the leading bytes of a streamed body, without
+ * consuming or retaining the {@link DataBuffer}s it is fed.
+ */
+public class BodyExcerpt {
+    private final byte[] prefix;
+    private int length;
+    private long totalBytes;
+
+    public BodyExcerpt(int maxBytes) {
+        this.prefix = new byte[Math.max(0, maxBytes)];
+    }
+
+    public synchronized void append(DataBuffer buffer) {
+        int readable = buffer.readableByteCount();
+        int toCopy = Math.min(prefix.length - length, readable);
+        int readPosition = buffer.readPosition();
+        for (int i = 0; i < toCopy; i++) {
+            prefix[length++] = buffer.getByte(readPosition + i);
+        }
+        totalBytes += readable;
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized boolean isTruncated() {
+        return totalBytes > length;
+    }
+
+    @Override
+    public synchronized String toString() {
+        String text = new String(prefix, 0, length, StandardCharsets.UTF_8);
+        return isTruncated() ? text + "... (truncated, " + totalBytes + " bytes total)" : text;
+    }
+}
@@ -0,0 +1,31 @@
+package com.webflux.demo.utils.clocks;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * ISO-8601 timestamp of the current millisecond, formatted at most once per millisecond
+ * and shared by every caller within it.
+ */
+public final class CoarseClock {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(ZoneId.systemDefault());
+
+    private static volatile Tick last = new Tick(Long.MIN_VALUE, null);
+
+    private CoarseClock() {
+    }
+
+    public static String now() {
+        long millis = System.currentTimeMillis();
+        Tick tick = last;
+        if (tick.millis != millis) {
+            tick = new Tick(millis, FORMATTER.format(Instant.ofEpochMilli(millis)));
+            last = tick;
+        }
+        return tick.formatted;
+    }
+
+    private record Tick(long millis, String formatted) {
+    }
+}
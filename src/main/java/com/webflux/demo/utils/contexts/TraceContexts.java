@@ -0,0 +1,32 @@
+package com.webflux.demo.utils.contexts;
+
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import reactor.util.context.ContextView;
+
+/**
+ * Restores the thread locals registered with context-propagation (the current observation, and
+ * with it the trace scope and the traceId/spanId MDC entries) from a Reactor context or the
+ * calling thread. Used around log calls only; nothing is copied per request.
+ */
+public final class TraceContexts {
+    private static final ContextSnapshotFactory SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    private TraceContexts() {
+    }
+
+    public static void run(ContextView context, Runnable task) {
+        try (ContextSnapshot.Scope scope = SNAPSHOTS.setThreadLocalsFrom(context)) {
+            task.run();
+        }
+    }
+
+    // For tasks that run later on another thread.
+    public static Runnable wrap(ContextView context, Runnable task) {
+        return SNAPSHOTS.captureFrom(context).wrap(task);
+    }
+
+    public static Runnable wrap(Runnable task) {
+        return SNAPSHOTS.captureAll().wrap(task);
+    }
+}
@@ -0,0 +1,42 @@
+package com.webflux.demo.utils.http;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+public final class ETags {
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+    // 128 bits of the digest: collisions are out of reach and the header stays short.
+    private static final int TAG_BYTES = 16;
+
+    private ETags() {
+    }
+
+    public static byte[] digest(byte[] content) {
+        MessageDigest sha = SHA_256.get();
+        sha.reset();
+        return sha.digest(content);
+    }
+
+    // Weak validator over a digest of the response data and whatever selects its representation;
+    // envelope metadata (timestamps) differs per response, so the bytes are never identical.
+    public static String weak(byte[] dataDigest, Object... variant) {
+        MessageDigest sha = SHA_256.get();
+        sha.reset();
+        sha.update(dataDigest);
+        for (Object part : variant) {
+            sha.update((byte) 0);
+            sha.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] tag = Arrays.copyOf(sha.digest(), TAG_BYTES);
+        return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(tag) + "\"";
+    }
+}
@@ -0,0 +1,22 @@
+package com.webflux.demo.utils.http;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.regex.Pattern;
+
+public final class UriTemplates {
+    // Set by DefaultWebClient when a request is built with uri(String template, Object... vars).
+    private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+    // The attribute is prefixed with the client's baseUrl; only the path part is a useful tag.
+    private static final Pattern SCHEME_AND_AUTHORITY = Pattern.compile("^https?://[^/]+");
+
+    private UriTemplates() {
+    }
+
+    public static String of(ClientRequest request) {
+        return request.attribute(URI_TEMPLATE_ATTRIBUTE)
+                .map(template -> SCHEME_AND_AUTHORITY.matcher(template.toString()).replaceFirst(""))
+                .orElseGet(() -> request.url().getRawPath());
+    }
+}
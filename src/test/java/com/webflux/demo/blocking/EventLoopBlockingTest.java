@@ -0,0 +1,95 @@
+package com.webflux.demo.blocking;
+
+import com.webflux.demo.support.StubFakeStoreServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fails when anything blocks a non-blocking (event loop / parallel) thread while the controller
+ * serves normal traffic and an upstream error storm. Run with {@code ./gradlew blockHoundTest}.
+ */
+@Tag("blockhound")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "client.fake.api.logging.success-sample-rate=1.0",
+        "client.fake.api.catalog-index.refresh-interval=1s"
+})
+class EventLoopBlockingTest {
+    private static final Queue<String> BLOCKING_CALLS = new ConcurrentLinkedQueue<>();
+
+    // Only threads started after install are watched, so this runs before the stub and the
+    // application start their event loops. install() also applies the Reactor and Netty
+    // integrations, which mark their event loops as non-blocking.
+    static {
+        BlockHound.install(builder -> builder.blockingMethodCallback(method -> BLOCKING_CALLS.add(
+                method + " on " + Thread.currentThread().getName()
+                        + Arrays.stream(new Throwable().getStackTrace()).limit(25)
+                        .map(frame -> "\n\tat " + frame)
+                        .collect(Collectors.joining()))));
+    }
+
+    private static final StubFakeStoreServer STUB = StubFakeStoreServer.builder()
+            .errorRate(0.3, 500)
+            .start();
+
+    private static final List<String> ENDPOINTS = List.of(
+            "/api/fake-api/products",
+            "/api/fake-api/products/1",
+            "/api/fake-api/products/999",
+            "/api/fake-api/products/categories",
+            "/api/fake-api/products/search?q=product&sort=price",
+            "/api/fake-api/carts/user/1",
+            "/api/fake-api/users/1");
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("client.fake.api.url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void servesTrafficAndErrorStormsWithoutBlockingEventLoops() {
+        WebClient client = WebClient.create("http://localhost:" + port);
+        // Lazy class loading reads jars; get it over with before anything is counted.
+        drive(client, 5);
+        BLOCKING_CALLS.clear();
+
+        drive(client, 50);
+
+        assertThat(BLOCKING_CALLS).isEmpty();
+    }
+
+    private static void drive(WebClient client, int rounds) {
+        Flux.range(0, rounds)
+                .flatMap(round -> Flux.fromIterable(ENDPOINTS)
+                        .flatMap(path -> client.get().uri(path)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .exchangeToMono(response -> response.releaseBody())
+                                .onErrorResume(e -> Mono.empty())), 8)
+                .blockLast();
+    }
+}
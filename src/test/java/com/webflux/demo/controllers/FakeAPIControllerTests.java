@@ -0,0 +1,99 @@
+package com.webflux.demo.controllers;
+
+import com.webflux.demo.support.StubFakeStoreServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class FakeAPIControllerTests {
+    private static final StubFakeStoreServer STUB = StubFakeStoreServer.start();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("client.fake.api.url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void elementEnvelopeWrapsEachElementOfThePage() {
+        webTestClient.get().uri("/api/fake-api/carts/user/{userId}?offset=1&limit=5", 3)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].data.id").isEqualTo(103)
+                .jsonPath("$[0].paging").doesNotExist();
+    }
+
+    @Test
+    void collectionEnvelopeReportsTheTotal() {
+        webTestClient.get().uri("/api/fake-api/carts/user/{userId}?envelope=collection&limit=1", 3)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.length()").isEqualTo(1)
+                .jsonPath("$.data[0].id").isEqualTo(3)
+                .jsonPath("$.paging.count").isEqualTo(1)
+                .jsonPath("$.paging.total").isEqualTo(2);
+    }
+
+    @Test
+    void rejectsNegativeOffset() {
+        webTestClient.get().uri("/api/fake-api/carts?offset=-1")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void answersMatchingIfNoneMatchWith304PerRepresentation() {
+        String jsonTag = eTag(MediaType.APPLICATION_JSON);
+        String cborTag = eTag(MediaType.APPLICATION_CBOR);
+        assertThat(jsonTag).isNotEqualTo(cborTag);
+
+        revalidate(MediaType.APPLICATION_JSON, jsonTag).expectStatus().isNotModified();
+        revalidate(MediaType.APPLICATION_CBOR, cborTag).expectStatus().isNotModified();
+        revalidate(MediaType.APPLICATION_JSON, cborTag).expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, jsonTag);
+        revalidate(MediaType.APPLICATION_CBOR, jsonTag).expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, cborTag);
+    }
+
+    private String eTag(MediaType accept) {
+        return webTestClient.get().uri("/api/fake-api/products")
+                .accept(accept)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(accept)
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .returnResult(byte[].class)
+                .getResponseHeaders()
+                .getETag();
+    }
+
+    private WebTestClient.ResponseSpec revalidate(MediaType accept, String eTag) {
+        return webTestClient.get().uri("/api/fake-api/products")
+                .accept(accept)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+}
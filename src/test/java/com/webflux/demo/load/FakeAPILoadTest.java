@@ -0,0 +1,131 @@
+package com.webflux.demo.load;
+
+import com.webflux.demo.support.StubFakeStoreServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load harness: drives FakeAPIController over HTTP while the upstream is an embedded FakeStore stub.
+ * Run with {@code ./gradlew loadTest}; tune with -Dload.* (driver), -Dstub.* (upstream) and
+ * any -Dclient.fake.api.* application property.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "client.fake.api.logging.body=false",
+        "logging.level.com.webflux.demo=WARN"
+})
+class FakeAPILoadTest {
+    private static final StubFakeStoreServer STUB = StubFakeStoreServer.builder()
+            .productCount(Integer.getInteger("stub.products", 20))
+            .latency(Duration.ofMillis(Long.getLong("stub.latency-ms", 20)), Duration.ofMillis(Long.getLong("stub.jitter-ms", 30)))
+            .errorRate(Double.parseDouble(System.getProperty("stub.error-rate", "0.01")), Integer.getInteger("stub.error-status", 503))
+            .start();
+
+    private static final String DEFAULT_ENDPOINTS = "GET /api/fake-api/products,"
+            + "GET /api/fake-api/products/1,"
+            + "GET /api/fake-api/products/categories,"
+            + "GET /api/fake-api/products/category/electronics,"
+            + "GET /api/fake-api/carts/user/1,"
+            + "GET /api/fake-api/users/1,"
+            + "POST /api/fake-api/auth/login";
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${load.concurrency:64}")
+    private int concurrency;
+
+    @Value("${load.requests:2000}")
+    private int requests;
+
+    @Value("${load.warmup-requests:200}")
+    private int warmupRequests;
+
+    @Value("${load.endpoints:" + DEFAULT_ENDPOINTS + "}")
+    private List<String> endpoints;
+
+    @Value("${load.report:build/reports/load/load-report.txt}")
+    private String reportPath;
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("client.fake.api.url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void driveControllerEndpoints() throws IOException {
+        WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+
+        LoadReport report = new LoadReport();
+        for (String endpoint : endpoints) {
+            run(client, endpoint, warmupRequests, new LoadReport().endpoint(endpoint));
+            run(client, endpoint, requests, report.endpoint(endpoint));
+        }
+
+        String rendered = report.render(String.format("concurrency=%d requests/endpoint=%d stub latency=%sms+%sms error-rate=%s",
+                concurrency, requests, System.getProperty("stub.latency-ms", "20"), System.getProperty("stub.jitter-ms", "30"),
+                System.getProperty("stub.error-rate", "0.01")));
+        System.out.println(rendered);
+        Path path = Path.of(reportPath);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, rendered);
+
+        assertThat(rendered).isNotEmpty();
+    }
+
+    private void run(WebClient client, String endpoint, int count, LoadReport.Endpoint stats) {
+        String[] parts = endpoint.trim().split(" ", 2);
+        String method = parts[0];
+        String uri = parts[1];
+        long started = System.nanoTime();
+        Flux.range(0, count)
+                .flatMap(i -> timed(call(client, method, uri), stats), concurrency)
+                .blockLast();
+        stats.finished(Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private static Mono<Integer> call(WebClient client, String method, String uri) {
+        WebClient.RequestHeadersSpec<?> spec = "POST".equals(method)
+                ? client.post().uri(uri).contentType(MediaType.APPLICATION_JSON).bodyValue("{\"username\":\"user1\",\"password\":\"secret\"}")
+                : client.get().uri(uri);
+        return spec.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()));
+    }
+
+    private static Mono<Integer> timed(Mono<Integer> call, LoadReport.Endpoint stats) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnNext(status -> stats.record(System.nanoTime() - start, status >= 400))
+                    .onErrorResume(e -> {
+                        stats.record(System.nanoTime() - start, true);
+                        return Mono.empty();
+                    });
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.webflux.demo.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histograms (microseconds) and error counts per endpoint for one load run.
+ */
+public class LoadReport {
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    public synchronized Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, key -> new Endpoint());
+    }
+
+    public synchronized String render(String header) {
+        StringBuilder sb = new StringBuilder(header).append('\n');
+        sb.append(String.format(Locale.ROOT, "%-45s %8s %7s %9s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)", "mean(ms)"));
+        endpoints.forEach((name, endpoint) -> {
+            Histogram histogram = endpoint.histogram;
+            long requests = histogram.getTotalCount();
+            double seconds = endpoint.elapsed.toNanos() / 1e9;
+            sb.append(String.format(Locale.ROOT, "%-45s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    name,
+                    requests,
+                    endpoint.errors.get(),
+                    seconds > 0 ? requests / seconds : 0,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    histogram.getMean() / 1000.0));
+        });
+        return sb.toString();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    public static class Endpoint {
+        private final Histogram histogram = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+        private final AtomicLong errors = new AtomicLong();
+        private Duration elapsed = Duration.ZERO;
+
+        public void record(long nanos, boolean error) {
+            histogram.recordValue(Math.min(MAX_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+            if (error) {
+                errors.incrementAndGet();
+            }
+        }
+
+        public void finished(Duration elapsed) {
+            this.elapsed = elapsed;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.webflux.demo.services.aggregations;
+
+import com.webflux.demo.payloads.clients.FakeAPI.EnrichedCart;
+import com.webflux.demo.support.StubFakeStoreServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {
+        "client.fake.api.cache.enabled=false",
+        "client.fake.api.resilience.retry.enabled=false"
+})
+class CartEnrichmentServiceTests {
+    // Both carts of user 3 hold products 1 and 5; product 5 is unknown to a four-product store.
+    private static final StubFakeStoreServer STUB = StubFakeStoreServer.builder()
+            .productCount(4)
+            .start();
+
+    @Autowired
+    private CartEnrichmentService cartEnrichmentService;
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("client.fake.api.url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void joinsProductsOncePerIdAndKeepsLinesWithMissingProducts() {
+        List<EnrichedCart> carts = cartEnrichmentService.getEnrichedCartsByUserId(3)
+                .collectList()
+                .block();
+
+        assertThat(carts).extracting(EnrichedCart::getId).containsExactly(3, 103);
+        for (EnrichedCart cart : carts) {
+            assertThat(cart.getLines())
+                    .extracting(EnrichedCart.Line::getProductId, line -> line.getProduct() == null ? null : line.getProduct().getId())
+                    .containsExactly(tuple(1, 1), tuple(5, null));
+            assertThat(cart.getLines().get(1).getLineTotal()).isNull();
+            assertThat(cart.getTotal()).isEqualByComparingTo(new BigDecimal("21.98"));
+        }
+        assertThat(STUB.requestCount("GET", "/products/1")).isEqualTo(1);
+        assertThat(STUB.requestCount("GET", "/products/5")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,90 @@
+package com.webflux.demo.services.aggregations;
+
+import com.webflux.demo.payloads.clients.FakeAPI.Cart;
+import com.webflux.demo.support.StubFakeStoreServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {
+        "client.fake.api.cart-writes.enabled=true",
+        "client.fake.api.cart-writes.max-batch-latency=50ms"
+})
+class CartWritePipelineTests {
+    private static final StubFakeStoreServer STUB = StubFakeStoreServer.start();
+
+    @Autowired
+    private CartWritePipeline cartWritePipeline;
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("client.fake.api.url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void collapsesBurstOfUpdatesToOneCartAndAnswersEveryCaller() {
+        StepVerifier.create(Flux.range(0, 40)
+                        .flatMap(i -> i % 4 == 0
+                                ? cartWritePipeline.addCart(cart(null, line(i, 1)))
+                                : cartWritePipeline.updateCart(7, cart(7, line(i, 1))), 40)
+                        .count())
+                .expectNext(40L)
+                .verifyComplete();
+
+        assertThat(STUB.requestCount("POST", "/carts")).isEqualTo(10);
+        assertThat(STUB.requestCount("PUT", "/carts/7")).isLessThan(30);
+    }
+
+    @Test
+    void laterWriteReplacesTheProductList() {
+        Cart withoutProducts = cart(7);
+        withoutProducts.setProducts(null);
+        Cart merged = CartWritePipeline.merge(List.of(
+                write(cart(7, line(1, 1), line(2, 1))),
+                write(cart(7, line(2, 5), line(3, 1))),
+                write(withoutProducts)));
+
+        // Line 1 was dropped by the second write and stays dropped; the third write keeps the products.
+        assertThat(merged.getProducts())
+                .extracting(Cart.CartProduct::getProductId, Cart.CartProduct::getQuantity)
+                .containsExactly(
+                        tuple(2, 5),
+                        tuple(3, 1));
+    }
+
+    private static CartWritePipeline.Write write(Cart cart) {
+        return new CartWritePipeline.Write(cart.getId(), cart, Context.empty(), Sinks.one());
+    }
+
+    private static Cart cart(Integer id, Cart.CartProduct... lines) {
+        Cart cart = new Cart();
+        cart.setId(id);
+        cart.setUserId(1);
+        cart.setProducts(List.of(lines));
+        return cart;
+    }
+
+    private static Cart.CartProduct line(int productId, int quantity) {
+        Cart.CartProduct line = new Cart.CartProduct();
+        line.setProductId(productId);
+        line.setQuantity(quantity);
+        return line;
+    }
+}
@@ -0,0 +1,76 @@
+package com.webflux.demo.services.aggregations;
+
+import com.webflux.demo.payloads.clients.BatchItem;
+import com.webflux.demo.payloads.clients.FakeAPI.Product;
+import com.webflux.demo.support.StubFakeStoreServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {
+        "client.fake.api.cache.enabled=false",
+        "client.fake.api.resilience.retry.enabled=false"
+})
+class ProductBatchServiceTests {
+    // Random per-request latency, so lookups complete out of request order.
+    private static final StubFakeStoreServer STUB = StubFakeStoreServer.builder()
+            .latency(Duration.ZERO, Duration.ofMillis(50))
+            .start();
+
+    @Autowired
+    private ProductBatchService productBatchService;
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("client.fake.api.url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void keepsRequestOrderDedupesAndReportsFailuresInline() {
+        STUB.failNext("GET", "/products/3", 500, 1);
+
+        List<BatchItem<Product>> items = productBatchService.getProductsByIds(List.of(5, 999, 5, 3, 1, 4, 2))
+                .collectList()
+                .block();
+
+        assertThat(items)
+                .extracting(BatchItem::getId, BatchItem::getCode)
+                .containsExactly(
+                        tuple(5, 200),
+                        tuple(999, 404),
+                        tuple(3, 500),
+                        tuple(1, 200),
+                        tuple(4, 200),
+                        tuple(2, 200));
+        assertThat(items.get(0).getData().getId()).isEqualTo(5);
+        assertThat(STUB.requestCount("GET", "/products/5")).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsNullIds() {
+        StepVerifier.create(productBatchService.getProductsByIds(Arrays.asList(1, null)))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(ResponseStatusException.class)
+                        .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                        .isEqualTo(HttpStatus.BAD_REQUEST))
+                .verify();
+    }
+}
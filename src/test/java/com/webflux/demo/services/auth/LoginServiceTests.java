@@ -0,0 +1,80 @@
+package com.webflux.demo.services.auth;
+
+import com.webflux.demo.exceptions.RetryLaterException;
+import com.webflux.demo.payloads.clients.FakeAPI.LoginRequest;
+import com.webflux.demo.payloads.clients.FakeAPI.TokenResponse;
+import com.webflux.demo.support.StubFakeStoreServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class LoginServiceTests {
+    private static final StubFakeStoreServer STUB = StubFakeStoreServer.builder()
+            .latency(Duration.ofMillis(50), Duration.ZERO)
+            .start();
+
+    @Autowired
+    private LoginService loginService;
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("client.fake.api.url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @BeforeEach
+    void resetStub() {
+        STUB.reset();
+    }
+
+    @Test
+    void concurrentAndRepeatedLoginsShareOneUpstreamCall() {
+        StepVerifier.create(Flux.range(0, 20)
+                        .flatMap(i -> loginService.login(new LoginRequest("mor_2314", "83r5^_")), 20)
+                        .map(TokenResponse::getToken)
+                        .distinct())
+                .expectNext("stub-token")
+                .verifyComplete();
+        StepVerifier.create(loginService.login(new LoginRequest("mor_2314", "83r5^_")))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(STUB.requestCount("POST", "/auth/login")).isEqualTo(1);
+    }
+
+    @Test
+    void floodForOneUsernameIsRefusedLocallyWithRetryAfter() {
+        StepVerifier.create(Flux.range(0, 10)
+                        .concatMap(i -> loginService.login(new LoginRequest("flood", "guess-" + i))
+                                .map(token -> "ok")
+                                .onErrorResume(RetryLaterException.class, e -> {
+                                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                                    assertThat(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+                                    return Mono.just("rejected");
+                                }))
+                        .filter("rejected"::equals)
+                        .count())
+                .expectNext(5L)
+                .verifyComplete();
+
+        assertThat(STUB.requestCount("POST", "/auth/login")).isEqualTo(5);
+    }
+}
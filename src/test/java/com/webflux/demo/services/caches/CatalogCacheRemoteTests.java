@@ -0,0 +1,72 @@
+package com.webflux.demo.services.caches;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.webflux.demo.configurations.properties.FakeAPICacheProperty;
+import com.webflux.demo.payloads.clients.FakeAPI.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two CatalogCaches sharing one InMemoryRemoteCacheTier stand in for two replicas sharing Redis.
+class CatalogCacheRemoteTests {
+    private final InMemoryRemoteCacheTier tier = new InMemoryRemoteCacheTier();
+    private final CatalogCache nodeA = node();
+    private final CatalogCache nodeB = node();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @AfterEach
+    void close() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void secondNodeIsServedFromSharedTier() {
+        StepVerifier.create(get(nodeA, 1)).expectNext("Product 1").verifyComplete();
+        StepVerifier.create(get(nodeB, 1)).expectNext("Product 1").verifyComplete();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(tier.size()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidationOnOneNodeReachesTheOthers() {
+        StepVerifier.create(get(nodeA, 1)).expectNext("Product 1").verifyComplete();
+        StepVerifier.create(get(nodeB, 1)).expectNext("Product 1").verifyComplete();
+
+        nodeA.invalidateProduct(1);
+
+        assertThat(tier.size()).isZero();
+        StepVerifier.create(get(nodeB, 1)).expectNext("Product 1").verifyComplete();
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    private Mono<String> get(CatalogCache node, int id) {
+        return node.getProduct()
+                .get(id, key -> Mono.fromSupplier(() -> {
+                    upstreamCalls.incrementAndGet();
+                    Product product = new Product();
+                    product.setId(key);
+                    product.setTitle("Product " + key);
+                    return product;
+                }))
+                .map(Product::getTitle);
+    }
+
+    private CatalogCache node() {
+        FakeAPICacheProperty property = new FakeAPICacheProperty();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RemoteCache remoteCache = new RemoteCache(tier, new ObjectMapper(new SmileFactory()), property.getRemote(), meterRegistry);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("remoteCache", remoteCache));
+        return new CatalogCache(property, meterRegistry, beans.getBeanProvider(RemoteCache.class));
+    }
+}
@@ -0,0 +1,57 @@
+package com.webflux.demo.services.caches;
+
+import com.webflux.demo.configurations.properties.FakeAPICacheProperty;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveCacheTests {
+    private final FakeAPICacheProperty property = new FakeAPICacheProperty();
+    private final ReactiveCache<String, List<Integer>> cache =
+            new ReactiveCache<>("test", property.getProducts(), property, new SimpleMeterRegistry());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void streamingMissFollowsDemandAndCachesTheCompletedList() {
+        AtomicLong requested = new AtomicLong();
+        Flux<Integer> miss = ReactiveCache.stream(cache, "all", key -> {
+            loads.incrementAndGet();
+            return Flux.range(1, 3).doOnRequest(requested::addAndGet);
+        });
+
+        StepVerifier.create(miss, 1)
+                .expectNext(1)
+                .then(() -> assertThat(requested).hasValue(1))
+                .thenRequest(2)
+                .expectNext(2, 3)
+                .verifyComplete();
+
+        StepVerifier.create(ReactiveCache.stream(cache, "all", key -> Flux.just(9))).expectNext(1, 2, 3).verifyComplete();
+        StepVerifier.create(cache.get("all", key -> Flux.just(9).collectList())).expectNext(List.of(1, 2, 3)).verifyComplete();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void cancelledStreamIsNotCached() {
+        StepVerifier.create(ReactiveCache.stream(cache, "all", key -> Flux.range(1, 3)), 1)
+                .expectNext(1)
+                .thenCancel()
+                .verify();
+
+        StepVerifier.create(ReactiveCache.stream(cache, "all", key -> Flux.just(9))).expectNext(9).verifyComplete();
+    }
+
+    @Test
+    void emptyStreamIsNotCached() {
+        StepVerifier.create(ReactiveCache.stream(cache, "all", key -> Flux.<Integer>empty())).verifyComplete();
+
+        StepVerifier.create(ReactiveCache.stream(cache, "all", key -> Flux.just(1))).expectNext(1).verifyComplete();
+    }
+}
@@ -0,0 +1,76 @@
+package com.webflux.demo.services.catalog;
+
+import com.webflux.demo.payloads.clients.CatalogQuery;
+import com.webflux.demo.payloads.clients.FakeAPI.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogSnapshotTests {
+    private final CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(
+            product(1, "Mens Casual Slim Fit T-Shirt", "men's clothing", 15.99, 4.1),
+            product(2, "Solid Gold Petite Micropave", "jewelery", 168.0, 3.9),
+            product(3, "WD 2TB Elements Portable Hard Drive", "electronics", 64.0, 3.3),
+            product(4, "Samsung 49-Inch Gaming Monitor", "electronics", 999.99, 2.2),
+            product(5, "SanDisk SSD PLUS 1TB Internal Drive", "electronics", 109.0, 2.9)
+    ));
+
+    @Test
+    void combinesTextCategoryAndRangeFilters() {
+        CatalogQuery query = new CatalogQuery();
+        query.setQ("drive");
+        query.setCategory("Electronics");
+        query.setMaxPrice(100.0);
+
+        assertThat(ids(snapshot.query(query, 0, 10))).containsExactly(3);
+    }
+
+    @Test
+    void sortsAndPagesWithTotalOfAllMatches() {
+        CatalogQuery query = new CatalogQuery();
+        query.setCategory("electronics");
+        query.setSort("price");
+        query.setOrder("desc");
+
+        CatalogSnapshot.Result result = snapshot.query(query, 1, 1);
+
+        assertThat(ids(result)).containsExactly(5);
+        assertThat(result.total()).isEqualTo(3);
+    }
+
+    @Test
+    void minimumRatingIsInclusive() {
+        CatalogQuery query = new CatalogQuery();
+        query.setMinRating(3.9);
+        query.setSort("rating");
+
+        assertThat(ids(snapshot.query(query, 0, 10))).containsExactly(2, 1);
+    }
+
+    @Test
+    void rejectsUnknownSort() {
+        CatalogQuery query = new CatalogQuery();
+        query.setSort("popularity");
+
+        assertThatThrownBy(() -> snapshot.query(query, 0, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Integer> ids(CatalogSnapshot.Result result) {
+        return result.items().stream().map(Product::getId).toList();
+    }
+
+    private static Product product(int id, String title, String category, double price, double rate) {
+        Product product = new Product();
+        product.setId(id);
+        product.setTitle(title);
+        product.setCategory(category);
+        product.setPrice(price);
+        Product.Rating rating = new Product.Rating();
+        rating.setRate(rate);
+        product.setRating(rating);
+        return product;
+    }
+}
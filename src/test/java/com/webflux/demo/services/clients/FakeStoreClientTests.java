@@ -0,0 +1,48 @@
+package com.webflux.demo.services.clients;
+
+import com.webflux.demo.support.StubFakeStoreServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "client.fake.api.cache.enabled=false")
+class FakeStoreClientTests {
+    private static final StubFakeStoreServer STUB = StubFakeStoreServer.builder()
+            .latency(Duration.ofMillis(200), Duration.ZERO)
+            .start();
+
+    @Autowired
+    private FakeStoreClient fakeStoreClient;
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("client.fake.api.url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void overlappingListAndStreamOfTheSameUriDoNotShareAFlight() {
+        Mono<Long> listed = fakeStoreClient.getAllProducts().count();
+        Mono<Long> streamed = fakeStoreClient.streamAllProducts().count();
+
+        StepVerifier.create(Mono.zip(listed, streamed))
+                .assertNext(counts -> {
+                    assertThat(counts.getT1()).isEqualTo(20L);
+                    assertThat(counts.getT2()).isEqualTo(20L);
+                })
+                .verifyComplete();
+    }
+}
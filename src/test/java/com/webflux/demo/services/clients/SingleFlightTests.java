@@ -0,0 +1,59 @@
+package com.webflux.demo.services.clients;
+
+import com.webflux.demo.configurations.properties.FakeAPISingleFlightProperty;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTests {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(new FakeAPISingleFlightProperty(), meterRegistry);
+
+    @Test
+    void concurrentCallersShareOneCall() {
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        Mono<String> call = singleFlight.get("/products/1", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        });
+
+        StepVerifier first = StepVerifier.create(call).expectNext("product").expectComplete().verifyLater();
+        StepVerifier second = StepVerifier.create(call).expectNext("product").expectComplete().verifyLater();
+        upstream.tryEmitValue("product");
+        first.verify();
+        second.verify();
+
+        assertThat(calls).hasValue(1);
+        assertThat(meterRegistry.counter("fake.api.single.flight.coalesced").count()).isEqualTo(1);
+
+        // Finished calls are not retained: the next caller starts a new one.
+        StepVerifier.create(singleFlight.get("/products/1", () -> {
+            calls.incrementAndGet();
+            return Mono.just("again");
+        })).expectNext("again").verifyComplete();
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void upstreamIsCancelledOnlyWhenEveryCallerCancels() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<String> call = singleFlight.get("/users/1", () -> Mono.<String>never().doOnCancel(() -> cancelled.set(true)));
+
+        Disposable first = call.subscribe();
+        Disposable second = call.subscribe();
+        first.dispose();
+        assertThat(cancelled).isFalse();
+        second.dispose();
+        assertThat(cancelled).isTrue();
+    }
+}
@@ -0,0 +1,70 @@
+package com.webflux.demo.services.resilience;
+
+import com.webflux.demo.configurations.properties.FakeAPIResilienceProperty;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTests {
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void growsWhileThePoolIsBusyAndLatencyIsStable() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config());
+
+        for (int round = 0; round < 50; round++) {
+            int acquired = fill(limiter);
+            for (int i = 0; i < acquired; i++) {
+                limiter.onSuccess(round % 2 == 0 ? RTT : RTT * 3 / 2);
+            }
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    void shrinksOnDrops() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config());
+        fill(limiter);
+
+        limiter.onDropped();
+
+        assertThat(limiter.getLimit()).isEqualTo(9);
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAboveTheBaseline() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config());
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.onSuccess(RTT);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.onSuccess(RTT * 10);
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(10);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private static int fill(AdaptiveConcurrencyLimiter limiter) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        return acquired;
+    }
+
+    private static FakeAPIResilienceProperty.Limiter config() {
+        FakeAPIResilienceProperty.Limiter config = new FakeAPIResilienceProperty.Limiter();
+        config.setInitialLimit(10);
+        config.setMinLimit(2);
+        config.setMaxLimit(50);
+        return config;
+    }
+}
@@ -0,0 +1,100 @@
+package com.webflux.demo.services.resilience;
+
+import com.webflux.demo.exceptions.RetryLaterException;
+import com.webflux.demo.support.StubFakeStoreServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "client.fake.api.cache.enabled=false",
+        "client.fake.api.admission.routes.products.max-concurrent=2",
+        "client.fake.api.admission.routes.products.queue-capacity=2"
+})
+class AdmissionControlTests {
+    private static final StubFakeStoreServer STUB = StubFakeStoreServer.builder()
+            .latency(Duration.ofMillis(200), Duration.ZERO)
+            .start();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("client.fake.api.url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void shedsBeyondConcurrencyAndQueueWith503AndRetryAfter() {
+        WebClient client = WebClient.create("http://localhost:" + port);
+
+        List<String> outcomes = Flux.range(1, 8)
+                .flatMap(id -> client.get().uri("/api/fake-api/products/{id}", id)
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()
+                                + " " + response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER))), 8)
+                .collectList()
+                .block();
+
+        assertThat(outcomes).filteredOn(outcome -> outcome.startsWith("200")).hasSize(4);
+        assertThat(outcomes).filteredOn(outcome -> outcome.startsWith("503")).hasSize(4)
+                .allSatisfy(outcome -> assertThat(outcome).isEqualTo("503 1"));
+    }
+
+    @Test
+    void queuedReadDisplacesNewestQueuedWrite() {
+        List<RouteAdmission.Shed> shed = new CopyOnWriteArrayList<>();
+        RouteAdmission route = new RouteAdmission(1, 1, Schedulers.parallel(), shed::add);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        RouteAdmission.Permit first = route.acquire(RouteAdmission.Priority.READ, deadline).block();
+
+        Mono<RouteAdmission.Permit> write = route.acquire(RouteAdmission.Priority.WRITE, deadline).cache();
+        write.subscribe(permit -> { }, e -> { });
+        Mono<RouteAdmission.Permit> read = route.acquire(RouteAdmission.Priority.READ, deadline).cache();
+        read.subscribe();
+
+        StepVerifier.create(write)
+                .expectError(RetryLaterException.class)
+                .verify(Duration.ofSeconds(1));
+        assertThat(shed).containsExactly(RouteAdmission.Shed.PRIORITY);
+
+        first.release();
+        StepVerifier.create(read)
+                .expectNextCount(1)
+                .verifyComplete();
+        assertThat(route.getInFlight()).isEqualTo(1);
+        assertThat(route.getQueued()).isZero();
+    }
+
+    @Test
+    void queuedRequestIsShedWhenItsDeadlinePasses() {
+        List<RouteAdmission.Shed> shed = new CopyOnWriteArrayList<>();
+        RouteAdmission route = new RouteAdmission(1, 10, Schedulers.parallel(), shed::add);
+        route.acquire(RouteAdmission.Priority.READ, System.nanoTime() + Duration.ofSeconds(5).toNanos()).block();
+
+        StepVerifier.create(route.acquire(RouteAdmission.Priority.READ, System.nanoTime() + Duration.ofMillis(50).toNanos()))
+                .expectError(RetryLaterException.class)
+                .verify(Duration.ofSeconds(1));
+        assertThat(shed).containsExactly(RouteAdmission.Shed.DEADLINE);
+        assertThat(route.getQueued()).isZero();
+    }
+}
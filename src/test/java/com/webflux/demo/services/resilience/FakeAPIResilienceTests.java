@@ -0,0 +1,154 @@
+package com.webflux.demo.services.resilience;
+
+import com.webflux.demo.exceptions.InternalHttpClientException;
+import com.webflux.demo.exceptions.UpstreamRejectedException;
+import com.webflux.demo.payloads.clients.FakeAPI.Cart;
+import com.webflux.demo.payloads.clients.FakeAPI.Product;
+import com.webflux.demo.services.catalog.CatalogIndex;
+import com.webflux.demo.services.clients.FakeStoreClient;
+import com.webflux.demo.support.StubFakeStoreServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "client.fake.api.cache.enabled=false",
+        "client.fake.api.resilience.retry.initial-backoff=5ms",
+        "client.fake.api.resilience.breaker.sliding-window-size=4",
+        "client.fake.api.resilience.breaker.minimum-calls=4",
+        "client.fake.api.resilience.breaker.open-duration=1m",
+        "client.fake.api.resilience.hedge.enabled=true",
+        "client.fake.api.resilience.hedge.min-samples=5",
+        "client.fake.api.resilience.hedge.min-delay=1s"
+})
+class FakeAPIResilienceTests {
+    private static final StubFakeStoreServer STUB = StubFakeStoreServer.start();
+
+    @Autowired
+    private FakeStoreClient fakeStoreClient;
+
+    @Autowired
+    @Qualifier("fakeAPIWebClient")
+    private WebClient fakeAPIWebClient;
+
+    @Autowired
+    private CatalogIndex catalogIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("client.fake.api.url", STUB::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void retriesIdempotentGetOnServerError() {
+        STUB.failNext("GET", "/products/1", 500, 2);
+
+        StepVerifier.create(fakeStoreClient.getProductById(1).map(Product::getId))
+                .expectNext(1)
+                .verifyComplete();
+
+        assertThat(STUB.requestCount("GET", "/products/1")).isEqualTo(3);
+    }
+
+    @Test
+    void doesNotRetryWrites() {
+        STUB.failNext("PUT", "/products/2", 500, 1);
+
+        StepVerifier.create(fakeStoreClient.updateProduct(2, new Product()))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(InternalHttpClientException.class)
+                        .extracting("code").isEqualTo(500))
+                .verify();
+
+        assertThat(STUB.requestCount("PUT", "/products/2")).isEqualTo(1);
+    }
+
+    @Test
+    void opensCircuitAfterRepeatedFailures() {
+        STUB.failNext("GET", "/users/2", 503, 100);
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(fakeStoreClient.getUserById(2)).expectError().verify();
+        }
+        int upstreamCalls = STUB.requestCount("GET", "/users/2");
+
+        StepVerifier.create(fakeStoreClient.getUserById(2))
+                .expectError(UpstreamRejectedException.class)
+                .verify();
+        assertThat(STUB.requestCount("GET", "/users/2")).isEqualTo(upstreamCalls);
+    }
+
+    @Test
+    void hedgesSlowGetAndTakesTheFasterResponse() {
+        warmUp();
+        STUB.delayNext("GET", "/carts/3", Duration.ofSeconds(3), 1);
+
+        StepVerifier.create(fakeStoreClient.getCartById(3).map(Cart::getId))
+                .expectNext(3)
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+
+        assertThat(STUB.requestCount("GET", "/carts/3")).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotHedgeAfterThePrimaryFailed() {
+        warmUp();
+        STUB.failNext("GET", "/carts/4", 404, 1);
+
+        StepVerifier.create(fakeStoreClient.getCartById(4))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(InternalHttpClientException.class)
+                        .extracting("code").isEqualTo(404))
+                .verify(Duration.ofMillis(800));
+
+        assertThat(STUB.requestCount("GET", "/carts/4")).isEqualTo(1);
+    }
+
+    @Test
+    void holdsTheLimiterSlotUntilTheBodyIsRead() {
+        // Let the startup catalog load finish so it does not count as in flight.
+        catalogIndex.snapshot().block();
+
+        Double whileUnread = fakeAPIWebClient.get().uri("/carts/{id}", 5)
+                .exchangeToMono(response -> {
+                    double inFlight = inFlight();
+                    return response.releaseBody().then(Mono.just(inFlight));
+                })
+                .block();
+
+        assertThat(whileUnread).isEqualTo(1.0);
+        assertThat(inFlight()).isZero();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("fake.api.resilience.limiter.in.flight").gauge().value();
+    }
+
+    // Enough fast samples for GET /carts/{id} to become eligible for hedging.
+    private void warmUp() {
+        for (int i = 0; i < 5; i++) {
+            fakeStoreClient.getCartById(10 + i).block();
+        }
+    }
+}
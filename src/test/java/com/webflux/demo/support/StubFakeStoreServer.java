@@ -0,0 +1,237 @@
+package com.webflux.demo.support;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * In-process stand-in for fakestoreapi.com serving canned products, carts, users and auth,
+ * with optional latency and random error injection, and scripted failures and delays per "METHOD /path".
+ */
+public class StubFakeStoreServer implements AutoCloseable {
+    private static final String[] CATEGORIES = {"electronics", "jewelery", "men's clothing", "women's clothing"};
+
+    private final int productCount;
+    private final Duration latency;
+    private final Duration latencyJitter;
+    private final double errorRate;
+    private final int errorStatus;
+    private final DisposableServer server;
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final Map<String, Queue<Integer>> scriptedStatuses = new ConcurrentHashMap<>();
+    private final Map<String, Queue<Duration>> scriptedDelays = new ConcurrentHashMap<>();
+
+    private StubFakeStoreServer(Builder builder) {
+        this.productCount = builder.productCount;
+        this.latency = builder.latency;
+        this.latencyJitter = builder.latencyJitter;
+        this.errorRate = builder.errorRate;
+        this.errorStatus = builder.errorStatus;
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle(this::handle)
+                .bindNow();
+    }
+
+    public static StubFakeStoreServer start() {
+        return builder().start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    // The next `times` requests to `method path` are answered with `status` and a JSON error body.
+    public void failNext(String method, String path, int status, int times) {
+        Queue<Integer> queue = scriptedStatuses.computeIfAbsent(method + " " + path, key -> new ConcurrentLinkedQueue<>());
+        for (int i = 0; i < times; i++) {
+            queue.add(status);
+        }
+    }
+
+    // The next `times` requests to `method path` are answered after `delay` instead of the configured latency.
+    public void delayNext(String method, String path, Duration delay, int times) {
+        Queue<Duration> queue = scriptedDelays.computeIfAbsent(method + " " + path, key -> new ConcurrentLinkedQueue<>());
+        for (int i = 0; i < times; i++) {
+            queue.add(delay);
+        }
+    }
+
+    public int requestCount(String method, String path) {
+        AtomicInteger count = requestCounts.get(method + " " + path);
+        return count == null ? 0 : count.get();
+    }
+
+    public void reset() {
+        requestCounts.clear();
+        scriptedStatuses.clear();
+        scriptedDelays.clear();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Publisher<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        String path = request.fullPath();
+        String key = request.method().name() + " " + path;
+        requestCounts.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+
+        Queue<Integer> scripted = scriptedStatuses.get(key);
+        Integer scriptedStatus = scripted == null ? null : scripted.poll();
+        Integer status = scriptedStatus != null ? scriptedStatus
+                : errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate ? errorStatus : null;
+        // Request bodies are drained so keep-alive connections stay reusable.
+        Mono<Void> reply = request.receive().aggregate().then(Mono.defer(() -> Mono.from(status != null
+                ? json(response, status, "{\"status\":\"error\",\"message\":\"injected " + status + "\"}")
+                : ok(request, response, route(request.method().name(), path)))));
+        Queue<Duration> delays = scriptedDelays.get(key);
+        Duration scriptedDelay = delays == null ? null : delays.poll();
+        Duration delay = scriptedDelay != null ? scriptedDelay : nextDelay();
+        return delay.isZero() ? reply : Mono.delay(delay).then(reply);
+    }
+
+    private Duration nextDelay() {
+        if (latencyJitter.isZero()) {
+            return latency;
+        }
+        return latency.plusNanos(ThreadLocalRandom.current().nextLong(latencyJitter.toNanos() + 1));
+    }
+
+    private String route(String method, String path) {
+        String[] segments = path.substring(1).split("/");
+        switch (segments[0]) {
+            case "products" -> {
+                if (segments.length == 1) {
+                    return method.equals("GET") ? products() : product(productCount + 1);
+                }
+                if (segments[1].equals("categories")) {
+                    return IntStream.range(0, CATEGORIES.length)
+                            .mapToObj(i -> "\"" + CATEGORIES[i] + "\"")
+                            .collect(Collectors.joining(",", "[", "]"));
+                }
+                if (segments[1].equals("category")) {
+                    return products();
+                }
+                int id = Integer.parseInt(segments[1]);
+                return id > productCount ? "" : product(id);
+            }
+            case "carts" -> {
+                if (segments.length == 1) {
+                    return method.equals("GET") ? "[" + cart(1, 1) + "," + cart(2, 2) + "]" : cart(3, 1);
+                }
+                if (segments[1].equals("user")) {
+                    int userId = Integer.parseInt(segments[2]);
+                    return "[" + cart(userId, userId) + "," + cart(userId + 100, userId) + "]";
+                }
+                return cart(Integer.parseInt(segments[1]), 1);
+            }
+            case "users" -> {
+                if (segments.length == 1) {
+                    return method.equals("GET") ? "[" + user(1) + "," + user(2) + "]" : user(3);
+                }
+                return user(Integer.parseInt(segments[1]));
+            }
+            case "auth" -> {
+                return "{\"token\":\"stub-token\"}";
+            }
+            default -> {
+                return "";
+            }
+        }
+    }
+
+    private String products() {
+        return IntStream.rangeClosed(1, productCount)
+                .mapToObj(this::product)
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private String product(int id) {
+        return "{\"id\":" + id + ",\"title\":\"Product " + id + "\",\"price\":" + (id * 10 + 0.99)
+                + ",\"description\":\"Description of product " + id + "\",\"category\":\"" + CATEGORIES[id % CATEGORIES.length]
+                + "\",\"image\":\"https://example.com/" + id + ".jpg\",\"rating\":{\"rate\":" + (1 + id % 5) + ".5,\"count\":" + (id * 7) + "}}";
+    }
+
+    private static String cart(int id, int userId) {
+        return "{\"id\":" + id + ",\"userId\":" + userId + ",\"date\":\"2020-03-02T00:00:00.000Z\",\"products\":["
+                + "{\"productId\":1,\"quantity\":2},{\"productId\":" + (id % 5 + 2) + ",\"quantity\":1}],\"__v\":0}";
+    }
+
+    private static String user(int id) {
+        return "{\"id\":" + id + ",\"email\":\"user" + id + "@example.com\",\"username\":\"user" + id + "\",\"password\":\"secret\","
+                + "\"name\":{\"firstname\":\"First\",\"lastname\":\"Last\"},\"phone\":\"1-570-236-7033\","
+                + "\"address\":{\"city\":\"kilcoole\",\"street\":\"new road\",\"number\":7682,\"zipcode\":\"12926-3874\","
+                + "\"geo\":{\"lat\":\"-37.3159\",\"long\":\"81.1496\"}},\"__v\":0}";
+    }
+
+    public static class Builder {
+        private int productCount = 20;
+        private Duration latency = Duration.ZERO;
+        private Duration latencyJitter = Duration.ZERO;
+        private double errorRate;
+        private int errorStatus = 503;
+
+        public Builder productCount(int productCount) {
+            this.productCount = productCount;
+            return this;
+        }
+
+        // Every response is delayed by latency plus a uniform random amount in [0, jitter].
+        public Builder latency(Duration latency, Duration jitter) {
+            this.latency = latency;
+            this.latencyJitter = jitter;
+            return this;
+        }
+
+        // Fraction of requests, in [0, 1], answered with errorStatus instead of a payload.
+        public Builder errorRate(double errorRate, int errorStatus) {
+            this.errorRate = errorRate;
+            this.errorStatus = errorStatus;
+            return this;
+        }
+
+        public StubFakeStoreServer start() {
+            return new StubFakeStoreServer(this);
+        }
+    }
+
+    // GETs carry a weak ETag and honour If-None-Match, like the Express server behind fakestoreapi.com.
+    private static Publisher<Void> ok(HttpServerRequest request, HttpServerResponse response, String body) {
+        if (!request.method().name().equals("GET")) {
+            return json(response, 200, body);
+        }
+        String etag = "W/\"" + Integer.toHexString(body.hashCode()) + "\"";
+        response.header("ETag", etag);
+        if (etag.equals(request.requestHeaders().get("If-None-Match"))) {
+            return response.status(304).send();
+        }
+        return json(response, 200, body);
+    }
+
+    private static Publisher<Void> json(HttpServerResponse response, int status, String body) {
+        return response.status(status)
+                .header("Content-Type", "application/json; charset=utf-8")
+                .sendString(Mono.just(body), StandardCharsets.UTF_8);
+    }
+}